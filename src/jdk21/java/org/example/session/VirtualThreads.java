@@ -0,0 +1,14 @@
+package org.example.session;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Compiled by the "jdk21" profile only, see SessionRuntime
+final class VirtualThreads {
+    private VirtualThreads() {
+    }
+
+    static ExecutorService newExecutor(String namePrefix) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(namePrefix, 0).factory());
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Runs the benchmarks with the regular JMH command line options. Pass -Dbench.gc=true to
+// attach the GC profiler, which reports allocation rates next to the timings but adds its
+// own overhead to every iteration.
+public class BenchmarkMain {
+    public static void main(String[] args) throws Exception {
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(new CommandLineOptions(args));
+        if (Boolean.getBoolean("bench.gc")) {
+            options.addProfiler(GCProfiler.class);
+        }
+        new Runner(options.build()).run();
+    }
+}
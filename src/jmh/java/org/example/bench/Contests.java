@@ -0,0 +1,45 @@
+package org.example.bench;
+
+import org.example.BeautyContest;
+import org.example.Contestant;
+
+import java.util.Random;
+
+final class Contests {
+    private Contests() {
+    }
+
+    static Contestant[] contestants(int count) {
+        Contestant[] contestants = new Contestant[count];
+        for (int i = 0; i < count; i++) {
+            contestants[i] = new Contestant("Contestant " + i);
+        }
+        return contestants;
+    }
+
+    static int[] randomGuesses(int count, long seed) {
+        Random random = new Random(seed);
+        int[] guesses = new int[count];
+        for (int i = 0; i < count; i++) {
+            guesses[i] = random.nextInt(101);
+        }
+        return guesses;
+    }
+
+    static void submitAll(BeautyContest contest, Contestant[] contestants, int[] guesses) {
+        for (int i = 0; i < contestants.length; i++) {
+            contest.submitGuess(contestants[i], guesses[i]);
+        }
+    }
+
+    // Resets the contest and plays the given number of rounds with the same guesses; returns
+    // the round reached so the work cannot be optimized away
+    static int playRounds(BeautyContest contest, Contestant[] contestants, int[] guesses, int rounds) {
+        contest.reset();
+        for (int round = 0; round < rounds; round++) {
+            submitAll(contest, contestants, guesses);
+            contest.evaluateRound();
+        }
+        return contest.getRound();
+    }
+}
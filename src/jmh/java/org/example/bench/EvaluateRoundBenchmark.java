@@ -0,0 +1,50 @@
+package org.example.bench;
+
+import org.example.BeautyContest;
+import org.example.Contestant;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Latency of evaluateRound() in large lobbies with random guesses. Guesses are submitted
+// outside of the measurement, and the game is reset before anyone can be eliminated so
+// every invocation evaluates a full lobby. Evaluating this many contestants takes long
+// enough for invocation-level setup not to skew the timing; small lobbies are measured a
+// round at a time by PlayRoundBenchmark, and submission by SubmitGuessBenchmark.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class EvaluateRoundBenchmark {
+    // A contestant loses at most two points per round, so no one is eliminated within this many rounds
+    static final int ROUNDS_BEFORE_RESET = 4;
+
+    @Param({"10000", "1000000"})
+    int contestantCount;
+
+    Contestant[] contestants;
+    int[] guesses;
+    BeautyContest contest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        contestants = Contests.contestants(contestantCount);
+        guesses = Contests.randomGuesses(contestantCount, 42);
+        contest = new BeautyContest(contestants);
+    }
+
+    @Setup(Level.Invocation)
+    public void submitGuesses() {
+        if (contest.getRound() % ROUNDS_BEFORE_RESET == 0) {
+            contest.reset();
+        }
+        Contests.submitAll(contest, contestants, guesses);
+    }
+
+    @Benchmark
+    public void evaluateRound() {
+        contest.evaluateRound();
+    }
+}
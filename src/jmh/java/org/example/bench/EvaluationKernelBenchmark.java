@@ -0,0 +1,49 @@
+package org.example.bench;
+
+import org.example.EvaluationKernel;
+import org.example.RoundEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Scalar against vector loser marking in full lobbies. The vector kernel needs the jar to
+// be built with the vector profile and the JVM to run with --add-modules
+// jdk.incubator.vector; without them the VECTOR runs measure the scalar fallback.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class EvaluationKernelBenchmark {
+    @Param({"1000000", "4000000"})
+    int contestantCount;
+
+    @Param({"SCALAR", "VECTOR"})
+    EvaluationKernel kernel;
+
+    int[] guesses;
+    RoundEngine engine;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        guesses = Contests.randomGuesses(contestantCount, 42);
+        engine = new RoundEngine(contestantCount, 1);
+        engine.setEvaluationKernel(kernel);
+    }
+
+    @Setup(Level.Invocation)
+    public void submitGuesses() {
+        if (engine.getRound() % EvaluateRoundBenchmark.ROUNDS_BEFORE_RESET == 0) {
+            engine.reset();
+        }
+        for (int id = 0; id < guesses.length; id++) {
+            engine.submitGuess(id, guesses[id]);
+        }
+    }
+
+    @Benchmark
+    public void evaluateRound() {
+        engine.evaluateRound();
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.bench;
+
+import org.example.BeautyContest;
+import org.example.Contestant;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+// Cost of finished() when everyone is alive and when only the last contestant to join is
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FinishedBenchmark {
+    @Param({"100", "10000", "1000000"})
+    int contestantCount;
+
+    BeautyContest allAlive;
+    BeautyContest lastAlive;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Contestant[] contestants = Contests.contestants(contestantCount);
+        allAlive = new BeautyContest(contestants);
+        lastAlive = new BeautyContest(contestants);
+
+        // Everyone else guesses 100, so the last contestant's 80 is always closest to the target
+        int[] guesses = new int[contestantCount];
+        Arrays.fill(guesses, 100);
+        guesses[contestantCount - 1] = 80;
+        while (lastAlive.getContestantScore(contestants[0]) > 0) {
+            Contests.submitAll(lastAlive, contestants, guesses);
+            lastAlive.evaluateRound();
+        }
+    }
+
+    @Benchmark
+    public boolean finishedWithAllAlive() {
+        return allAlive.finished();
+    }
+
+    @Benchmark
+    public boolean finishedWithLastAlive() {
+        return lastAlive.finished();
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.bench;
+
+import org.example.BeautyContest;
+import org.example.Contestant;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Cost of a round in small lobbies with random guesses, where per-invocation setup would
+// cost more than the round itself. Each invocation resets the game and plays a batch of
+// rounds, submitting every guess and evaluating, so submission is part of the score; see
+// EvaluateRoundBenchmark for evaluateRound() alone in large lobbies.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PlayRoundBenchmark {
+    @Param({"2", "3", "4", "5", "100"})
+    int contestantCount;
+
+    Contestant[] contestants;
+    int[] guesses;
+    BeautyContest contest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        contestants = Contests.contestants(contestantCount);
+        guesses = Contests.randomGuesses(contestantCount, 42);
+        contest = new BeautyContest(contestants);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EvaluateRoundBenchmark.ROUNDS_BEFORE_RESET)
+    public int playRound() {
+        return Contests.playRounds(contest, contestants, guesses, EvaluateRoundBenchmark.ROUNDS_BEFORE_RESET);
+    }
+}
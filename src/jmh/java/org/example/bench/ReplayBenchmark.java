@@ -0,0 +1,66 @@
+package org.example.bench;
+
+import org.example.BeautyContest;
+import org.example.Contestant;
+import org.example.persistence.ContestRecovery;
+import org.example.persistence.EventLog;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Time to recover contests from a log without snapshots; divide the reported event count
+// by the score for events/sec
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReplayBenchmark {
+    @Param({"1000"})
+    int contests;
+
+    @Param({"100"})
+    int contestantsPerContest;
+
+    Path directory;
+
+    @Setup(Level.Trial)
+    public void writeLog() throws IOException {
+        directory = Files.createTempDirectory("replay-benchmark");
+        Contestant[] contestants = Contests.contestants(contestantsPerContest);
+        try (EventLog log = EventLog.open(directory, EventLog.DEFAULT_BUFFER_SIZE, 0, Long.MAX_VALUE)) {
+            for (int c = 0; c < contests; c++) {
+                BeautyContest contest = new BeautyContest(contestants);
+                log.attach(c, contest);
+                int[] guesses = Contests.randomGuesses(contestantsPerContest, c);
+                // Contestants are never eliminated within four rounds
+                for (int round = 0; round < 4; round++) {
+                    Contests.submitAll(contest, contestants, guesses);
+                    contest.evaluateRound();
+                }
+            }
+        }
+        // A log that replays nothing would make recover() measure an empty directory scan
+        if (ContestRecovery.recover(directory).getEventsReplayed() == 0) {
+            throw new IllegalStateException("Benchmark log in " + directory + " has no events");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteLog() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public long recover() throws IOException {
+        return ContestRecovery.recover(directory).getEventsReplayed();
+    }
+}
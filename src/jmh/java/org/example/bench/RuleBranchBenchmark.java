@@ -0,0 +1,49 @@
+package org.example.bench;
+
+import org.example.BeautyContest;
+import org.example.Contestant;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Cost of rounds that trigger each of the special rules, submitting the guesses and
+// evaluating; played in batches like EvaluateRoundBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class RuleBranchBenchmark {
+    @Param({"duplicateElimination", "doublePenalty", "zeroVsHundred"})
+    String rule;
+
+    Contestant[] contestants;
+    int[] guesses;
+    BeautyContest contest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        switch (rule) {
+            case "duplicateElimination": // 4 or fewer remain and two contestants guess 7
+                guesses = new int[]{7, 7, 32, 50};
+                break;
+            case "doublePenalty": // 3 or fewer remain and 19 matches the rounded target
+                guesses = new int[]{4, 50, 19};
+                break;
+            case "zeroVsHundred": // 2 remain, one guesses 0 and the other 100
+                guesses = new int[]{0, 100};
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown rule " + rule);
+        }
+        contestants = Contests.contestants(guesses.length);
+        contest = new BeautyContest(contestants);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EvaluateRoundBenchmark.ROUNDS_BEFORE_RESET)
+    public int playRound() {
+        return Contests.playRounds(contest, contestants, guesses, EvaluateRoundBenchmark.ROUNDS_BEFORE_RESET);
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.bench;
+
+import org.example.BeautyContest;
+import org.example.Contestant;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Throughput of single guess submissions. Every contestant guesses the same value, so no
+// one loses when a full round is evaluated and the contest can run indefinitely.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SubmitGuessBenchmark {
+    @Param({"100", "10000", "1000000"})
+    int contestantCount;
+
+    Contestant[] contestants;
+    BeautyContest contest;
+    int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        contestants = Contests.contestants(contestantCount);
+        contest = new BeautyContest(contestants);
+    }
+
+    @Benchmark
+    public void submitGuess() {
+        if (next == contestants.length) {
+            contest.evaluateRound();
+            next = 0;
+        }
+        contest.submitGuess(contestants[next++], 33);
+    }
+}
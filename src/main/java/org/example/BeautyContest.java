@@ -1,113 +1,240 @@
 package org.example;
 
-import java.util.*;
+import org.example.metrics.ContestMetrics;
+import org.example.rules.RuleSet;
+
+import java.util.Arrays;
 
 public class BeautyContest {
-    // Used to track people who have joined the contest and their score
-    private final Map<Contestant, Integer> scoreboard;
-    private final Map<Contestant, Integer> guesses;
+    // Maps people who have joined the contest to their dense id in the engine,
+    // which tracks their score and guess
+    private final ContestantIndex ids;
+    private final Contestant[] contestants;
+    private final RoundEngine engine;
+    private ContestListener listener;
+    private ContestMetrics metrics;
 
     public BeautyContest(Contestant... contestants) {
-        this.guesses = new HashMap<>();
-        this.scoreboard = new HashMap<>();
+        this(RuleSet.DEFAULT, contestants);
+    }
+
+    // A contest played by the given variant of the rules
+    public BeautyContest(RuleSet ruleSet, Contestant... contestants) {
+        this.ids = new ContestantIndex(contestants.length);
+        Contestant[] joined = new Contestant[contestants.length];
         for (Contestant c : contestants) {
-            this.scoreboard.put(c, 10);
+            joined[this.ids.putIfAbsent(c)] = c;
+        }
+        this.contestants = Arrays.copyOf(joined, this.ids.size());
+        this.engine = new RoundEngine(this.ids.size(), RoundEngine.DEFAULT_HISTORY_CAPACITY, ruleSet);
+    }
+
+    // Recreates a contest from a snapshot; see RoundEngine.restore()
+    public static BeautyContest restore(Contestant[] contestants, int round, int[] scores, int[] guesses) {
+        return restore(RuleSet.DEFAULT, contestants, round, scores, guesses);
+    }
+
+    public static BeautyContest restore(RuleSet ruleSet, Contestant[] contestants, int round, int[] scores,
+                                        int[] guesses) {
+        BeautyContest contest = new BeautyContest(ruleSet, contestants);
+        if (contest.getContestantCount() != contestants.length) {
+            throw new IllegalArgumentException("Snapshot contains the same contestant twice");
+        }
+        contest.engine.restore(round, scores, guesses);
+        return contest;
+    }
+
+    public void setListener(ContestListener listener) {
+        this.listener = listener;
+    }
+
+    // Metrics may be shared by many contests; null disables recording
+    public void setMetrics(ContestMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public void setTargetMode(TargetMode targetMode) {
+        engine.setTargetMode(targetMode);
+        if (listener != null) {
+            listener.onTargetModeChanged(this);
         }
     }
 
+    public TargetMode getTargetMode() {
+        return engine.getTargetMode();
+    }
+
+    public RuleSet getRuleSet() {
+        return engine.getRuleSet();
+    }
+
     public Integer getContestantScore(Contestant c) {
-        return scoreboard.getOrDefault(c, -1);
+        int id = ids.get(c);
+        return id == -1 ? -1 : engine.getScore(id);
+    }
+
+    public int getContestantCount() {
+        return contestants.length;
+    }
+
+    // Contestant ids are the ones reported by getRoundHistory(), from 0 to getContestantCount() - 1
+    public Contestant getContestant(int id) {
+        return contestants[id];
+    }
+
+    // Returns the id of a contestant who joined the contest, or -1
+    public int indexOf(Contestant c) {
+        return ids.get(c);
+    }
+
+    public int getScore(int id) {
+        return engine.getScore(id);
+    }
+
+    // Returns the contestant's guess in the current round, or -1 if they have not guessed yet
+    public int getGuess(int id) {
+        return engine.hasGuessed(id) ? engine.getGuess(id) : -1;
     }
 
     public void submitGuess(Contestant c, Integer guess) throws IllegalArgumentException {
-        if (!scoreboard.containsKey(c)) {
-            throw new IllegalArgumentException("Contestant is not participating in this contest");
-        } else if (guesses.containsKey(c)) {
-            throw new IllegalArgumentException("Contestant has already submitted a guess");
-        } else if (guess < 0 || guess > 100) {
-            throw new IllegalArgumentException("Guess must be between 0 and 100");
+        final int id = ids.get(c);
+        final byte result = validate(id, guess);
+        if (result != GuessRejection.ACCEPTED) {
+            if (metrics != null) {
+                metrics.recordGuess(result);
+            }
+            throw new IllegalArgumentException(GuessRejection.getMessage(result));
         }
-        guesses.put(c, guess);
+        accept(id, guess);
     }
 
-    public void evaluateRound() {
-        Set<Contestant> losers = new HashSet<>();
-        long remainingContestants = scoreboard.values().stream().filter(x -> x > 0).count();
-        if (remainingContestants <= 4) { // Remove duplicate guesses if 4 or fewer people remain
-            Set<Integer> encountered = new HashSet<>();
-            Set<Integer> duplicateGuesses = new HashSet<>();
-            for (Contestant c : guesses.keySet()) {
-                Integer guess = guesses.get(c);
-                if (encountered.contains(guess)) {
-                    duplicateGuesses.add(guess);
-                } else {
-                    encountered.add(guess);
-                }
-            }
-            for (Contestant c : scoreboard.keySet()) {
-                if (duplicateGuesses.contains(guesses.get(c))) {
-                    losers.add(c);
-                    guesses.remove(c);
-                }
+    // Submits a batch of guesses given as (contestant id, guess) pairs packed into one array,
+    // using the ids of getContestant(). Pairs fromPair (inclusive) to toPair (exclusive) are
+    // submitted and invalid ones are skipped instead of throwing: results[i] receives the
+    // GuessRejection code of pair i. Returns the number of accepted guesses.
+    public int submitGuesses(int[] pairs, int fromPair, int toPair, byte[] results) {
+        if (fromPair < 0 || toPair * 2 > pairs.length || toPair > results.length) {
+            throw new IllegalArgumentException("Batch is larger than its arrays");
+        }
+        int accepted = 0;
+        for (int i = fromPair; i < toPair; i++) {
+            final int id = pairs[2 * i];
+            final int guess = pairs[2 * i + 1];
+            final byte result = id < 0 || id >= contestants.length
+                    ? GuessRejection.NOT_PARTICIPATING
+                    : validate(id, guess);
+            results[i] = result;
+            if (result == GuessRejection.ACCEPTED) {
+                accept(id, guess);
+                accepted++;
+            } else if (metrics != null) {
+                metrics.recordGuess(result);
             }
         }
+        return accepted;
+    }
+
+    private byte validate(int id, int guess) {
+        if (id == -1) {
+            return GuessRejection.NOT_PARTICIPATING;
+        } else if (engine.isEliminated(id)) {
+            return GuessRejection.ELIMINATED;
+        } else if (engine.hasGuessed(id)) {
+            return GuessRejection.ALREADY_SUBMITTED;
+        } else if (guess < RoundEngine.MIN_GUESS || guess > RoundEngine.MAX_GUESS) {
+            return GuessRejection.OUT_OF_BOUNDS;
+        }
+        return GuessRejection.ACCEPTED;
+    }
 
-        int sum = 0;
-        for (Integer guess : guesses.values()) {
-            sum += guess;
+    private void accept(int id, int guess) {
+        engine.submitGuess(id, guess);
+        if (metrics != null) {
+            metrics.recordGuess(GuessRejection.ACCEPTED);
         }
-        final float average = (float) sum / guesses.size();
-        final float target = average * 0.8f;
-
-        int penalty = 1;
-        if (remainingContestants <= 3) { // Double penalty if a contestant has "exactly" guessed the target
-            // Page 4 of ch 51.3 shows that the "target" is rounded to an int for sake of an exact match
-            final int roundedTarget = Math.round(target);
-            if (guesses.containsValue(roundedTarget)) {
-                penalty *= 2;
-            }
+        if (listener != null) {
+            listener.onGuess(this, id, guess);
         }
+    }
 
-        // Used to prevent both contestants being considered losers in the following special scenario
-        boolean evaluateClosestGuess = true;
-        if (remainingContestants <= 2) {
-            // If one contestant chooses 100 and the other person chooses 0
-            // the person who chooses 100 wins the round (not the contestant)
-            if (guesses.containsValue(0) && guesses.containsValue(100)) {
-                evaluateClosestGuess = false;
-                for (Contestant c : guesses.keySet()) {
-                    if (guesses.get(c) == 0) {
-                        losers.add(c);
-                    }
-                }
-            }
+    public int getRemainingContestants() {
+        return engine.getRemainingContestants();
+    }
+
+    // Number of contestants who have guessed in the current round
+    public int getGuessCount() {
+        return engine.getGuessCount();
+    }
+
+    // Closes the current round, scores it and opens the next one
+    public void evaluateRound() {
+        evaluateRound(null);
+    }
+
+    // Adds the statistics of the current round to the given aggregate, e.g. to have the
+    // round decided together with other contests holding the rest of a lobby
+    public void collectStatistics(RoundStatistics into) {
+        engine.collectStatistics(into);
+    }
+
+    // Closes the current round with a decision made elsewhere from its statistics, or
+    // decides it locally if the decision is null, and opens the next one
+    public void evaluateRound(RoundDecision decision) {
+        final int round = engine.getRound();
+        final int contestants = engine.getRemainingContestants();
+        final long start = metrics == null ? 0 : System.nanoTime();
+        if (decision == null) {
+            engine.evaluateRound();
+        } else {
+            engine.closeRound(decision);
         }
+        if (metrics != null) {
+            metrics.recordRound(System.nanoTime() - start, contestants, engine.getHistory().getRules(round));
+        }
+        if (listener != null) {
+            listener.onRoundEvaluated(this, round);
+        }
+    }
 
-        if (evaluateClosestGuess) { // Special scenario with two contestants not encountered, evaluate who is closest
-            float smallestDiff = 777;
-            for (Integer guess : guesses.values()) {
-                smallestDiff = Math.min(smallestDiff, Math.abs(target - guess));
-            }
+    public int getRound() {
+        return engine.getRound();
+    }
+
+    public RoundHistory getRoundHistory() {
+        return engine.getHistory();
+    }
 
-            for (Contestant c : guesses.keySet()) {
-                final float diff = Math.abs(guesses.get(c) - target);
-                if (diff != smallestDiff) {
-                    losers.add(c);
-                }
+    // Standings by contestant id, created by the first call with top-K lists of up to
+    // topCapacity contestants; later calls must ask for the same capacity. Snapshots of the
+    // leaderboard may be read from any thread. Only available for rulesets with a starting
+    // score up to Leaderboard.MAX_SCORE.
+    public Leaderboard getLeaderboard(int topCapacity) {
+        Leaderboard leaderboard = engine.getLeaderboard();
+        if (leaderboard != null) {
+            if (leaderboard.getTopCapacity() != Math.min(Math.max(topCapacity, 0), contestants.length)) {
+                throw new IllegalArgumentException("Leaderboard already exists with a top capacity of "
+                        + leaderboard.getTopCapacity());
+            }
+        } else {
+            final int startingScore = engine.getRuleSet().getStartingScore();
+            if (startingScore > Leaderboard.MAX_SCORE) {
+                throw new IllegalStateException("Starting score is above the leaderboard");
             }
+            leaderboard = new Leaderboard(contestants.length, topCapacity, startingScore);
+            engine.setLeaderboard(leaderboard);
         }
+        return leaderboard;
+    }
 
-        for (Contestant loser : losers) {
-            scoreboard.replace(loser, scoreboard.get(loser) - penalty);
+    // Restarts the game with every contestant back at the starting score
+    public void reset() {
+        engine.reset();
+        if (listener != null) {
+            listener.onReset(this);
         }
     }
 
     public boolean finished() {
-        for (Integer score : scoreboard.values()) {
-            if (score > 0) {
-                return false;
-            }
-        }
-        return true;
+        return engine.finished();
     }
 }
@@ -0,0 +1,124 @@
+package org.example;
+
+import org.example.metrics.ContestMetrics;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// A contest that accepts guesses from many threads at once without a global lock.
+// Every contestant owns one slot that moves from EMPTY to its guess with a single CAS,
+// so a guess can neither be lost nor submitted twice. evaluateRound() closes the round by
+// swapping every slot to CLOSED, which snapshots the guesses: a submission either lands
+// before its slot is swept and is part of the round, or fails because the round is closed.
+public class ConcurrentBeautyContest {
+    private static final int EMPTY = -1;
+    private static final int CLOSED = -2;
+
+    // Never modified after construction, so it can be read by any thread
+    private final ContestantIndex ids;
+    private final AtomicIntegerArray slots;
+    // Only touched by the thread evaluating a round, guarded by this
+    private final RoundEngine engine;
+    // Written after every evaluation so readers see the scores it produced
+    private volatile int roundsEvaluated;
+    private volatile ContestMetrics metrics;
+
+    public ConcurrentBeautyContest(Contestant... contestants) {
+        ContestantIndex ids = new ContestantIndex(contestants.length);
+        for (Contestant c : contestants) {
+            ids.putIfAbsent(c);
+        }
+        this.ids = ids;
+        this.engine = new RoundEngine(ids.size());
+        this.slots = new AtomicIntegerArray(ids.size());
+        for (int id = 0; id < ids.size(); id++) {
+            this.slots.set(id, EMPTY);
+        }
+    }
+
+    // Metrics may be shared by many contests; null disables recording
+    public void setMetrics(ContestMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public Integer getContestantScore(Contestant c) {
+        int id = ids.get(c);
+        if (id == -1) {
+            return -1;
+        }
+        int ignored = roundsEvaluated; // Pairs with the write at the end of evaluateRound()
+        return engine.getScore(id);
+    }
+
+    public void submitGuess(Contestant c, Integer guess) throws IllegalArgumentException, IllegalStateException {
+        int id = ids.get(c);
+        if (id == -1) {
+            throw reject(GuessRejection.NOT_PARTICIPATING);
+        }
+        int ignored = roundsEvaluated; // Pairs with the write at the end of evaluateRound()
+        int current = slots.get(id);
+        if (engine.isEliminated(id)) {
+            throw reject(GuessRejection.ELIMINATED);
+        } else if (current >= 0) {
+            throw reject(GuessRejection.ALREADY_SUBMITTED);
+        } else if (guess < RoundEngine.MIN_GUESS || guess > RoundEngine.MAX_GUESS) {
+            throw reject(GuessRejection.OUT_OF_BOUNDS);
+        }
+        while (!slots.compareAndSet(id, EMPTY, guess)) {
+            current = slots.get(id);
+            if (current >= 0) {
+                throw reject(GuessRejection.ALREADY_SUBMITTED);
+            } else if (current == CLOSED) {
+                throw new IllegalStateException("Round is closed");
+            }
+        }
+        final ContestMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.recordGuess(GuessRejection.ACCEPTED);
+        }
+    }
+
+    private IllegalArgumentException reject(byte result) {
+        final ContestMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.recordGuess(result);
+        }
+        return new IllegalArgumentException(GuessRejection.getMessage(result));
+    }
+
+    // Returns the number of guesses that were part of the evaluated round
+    public synchronized int evaluateRound() {
+        int submitted = 0;
+        for (int id = 0; id < slots.length(); id++) {
+            final int guess = slots.getAndSet(id, CLOSED);
+            if (guess >= 0 && !engine.isEliminated(id)) {
+                submitted++;
+                engine.submitGuess(id, guess);
+            }
+        }
+        final ContestMetrics metrics = this.metrics;
+        if (metrics == null) {
+            engine.evaluateRound();
+        } else {
+            final int round = engine.getRound();
+            final int contestants = engine.getRemainingContestants();
+            final long start = System.nanoTime();
+            engine.evaluateRound();
+            metrics.recordRound(System.nanoTime() - start, contestants, engine.getHistory().getRules(round));
+        }
+        roundsEvaluated++;
+        // Reopen the slots for the next round
+        for (int id = 0; id < slots.length(); id++) {
+            slots.set(id, EMPTY);
+        }
+        return submitted;
+    }
+
+    public int getRound() {
+        return roundsEvaluated + 1;
+    }
+
+    public boolean finished() {
+        int ignored = roundsEvaluated; // Pairs with the write at the end of evaluateRound()
+        return engine.finished();
+    }
+}
@@ -0,0 +1,16 @@
+package org.example;
+
+// Observes a BeautyContest. Callbacks run on the thread that submitted the guess or
+// evaluated the round, right after the contest's state has been updated.
+public interface ContestListener {
+    void onGuess(BeautyContest contest, int id, int guess);
+
+    // The round's target, penalty and losers are in contest.getRoundHistory()
+    void onRoundEvaluated(BeautyContest contest, int round);
+
+    // Rounds are evaluated in contest.getTargetMode() from the next evaluation on
+    void onTargetModeChanged(BeautyContest contest);
+
+    // Every contestant is back at the starting score, see BeautyContest.reset()
+    void onReset(BeautyContest contest);
+}
@@ -1,9 +1,35 @@
 package org.example;
 
+// A contestant is identified by their name within a ContestantRegistry. Names are interned
+// in the registry, so a Contestant only holds the registry, its id there and the cached
+// hash, and equality is a single int comparison. new Contestant(name) uses the global
+// registry; contests only accept contestants of one registry.
 public class Contestant {
-    private final String name;
+    private final ContestantRegistry registry;
+    private final int id;
+    private final int hash;
+
     public Contestant(String name) {
-        this.name = name;
+        this(ContestantRegistry.global(), name);
+    }
+
+    public Contestant(ContestantRegistry registry, String name) {
+        this.registry = registry;
+        this.id = registry.intern(name);
+        this.hash = registry.getHash(this.id);
+    }
+
+    public ContestantRegistry getRegistry() {
+        return registry;
+    }
+
+    // Dense id in getRegistry()
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return registry.getName(id);
     }
 
     @Override
@@ -13,11 +39,16 @@ public class Contestant {
         if (!(obj instanceof Contestant))
             return false;
         Contestant p = (Contestant) obj;
-        return this.name.equals(p.name);
+        return this.id == p.id && this.registry == p.registry;
     }
 
     @Override
     public int hashCode() {
-        return name.hashCode();
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return getName();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,87 @@
+package org.example;
+
+import java.util.Arrays;
+
+// Maps registry ids to the dense ids of one contest with open addressing over an int
+// array, so looking a contestant up neither boxes nor calls equals(). Every contestant
+// must come from the registry of the first one.
+final class ContestantIndex {
+    private ContestantRegistry registry;
+    private int[] keys;
+    private int[] values;
+    private int size;
+
+    ContestantIndex(int expectedSize) {
+        int capacity = 4;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        this.keys = new int[capacity];
+        this.values = new int[capacity];
+        Arrays.fill(this.keys, -1);
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Returns the dense id of the contestant, or -1
+    int get(Contestant c) {
+        return c.getRegistry() == registry ? get(c.getId()) : -1;
+    }
+
+    private int get(int registryId) {
+        final int mask = keys.length - 1;
+        int slot = ContestantRegistry.mix(registryId) & mask;
+        int key;
+        while ((key = keys[slot]) != -1) {
+            if (key == registryId) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Assigns the next dense id to the contestant unless they already have one, and returns it
+    int putIfAbsent(Contestant c) {
+        if (registry == null) {
+            registry = c.getRegistry();
+        } else if (c.getRegistry() != registry) {
+            throw new IllegalArgumentException("Contestants of a contest must come from the same registry");
+        }
+        final int registryId = c.getId();
+        final int existing = get(registryId);
+        if (existing != -1) {
+            return existing;
+        }
+        if ((size + 1) * 2 > keys.length) {
+            resize();
+        }
+        insert(registryId, size);
+        return size++;
+    }
+
+    private void insert(int registryId, int value) {
+        final int mask = keys.length - 1;
+        int slot = ContestantRegistry.mix(registryId) & mask;
+        while (keys[slot] != -1) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = registryId;
+        values[slot] = value;
+    }
+
+    private void resize() {
+        final int[] oldKeys = keys;
+        final int[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        Arrays.fill(keys, -1);
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != -1) {
+                insert(oldKeys[slot], oldValues[slot]);
+            }
+        }
+    }
+}
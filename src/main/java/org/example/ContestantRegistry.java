@@ -0,0 +1,193 @@
+package org.example;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Interns contestant names and hands out a dense int id for each distinct name.
+// Names are stored back to back as UTF-8 in one shared byte arena and indexed by an
+// open-addressing table of ids, so a registered contestant costs its name's bytes plus
+// roughly 16 bytes, with no per-contestant objects. Ids are never reused within a
+// registry; scope a registry to a contest, an audit or a test so its names can be
+// collected with it, and keep the global one for contestants that live with the process.
+//
+// Only interning a new name takes the lock. Lookups read the published Tables without it:
+// ids below Tables.count are fully written, and a name that is not found there is looked
+// up again under the lock.
+public final class ContestantRegistry {
+    private static final ContestantRegistry GLOBAL = new ContestantRegistry();
+
+    // Arrays are replaced when they grow and only written past count in place, so a reader
+    // never sees a published entry change
+    private static final class Tables {
+        final byte[] arena;
+        // nameOffsets[id] is where the id's name starts, nameOffsets[id + 1] where it ends
+        final int[] nameOffsets;
+        final int[] hashes;
+        // Slots hold id + 1, 0 marks an empty slot; kept at most half full
+        final int[] table;
+        final int count;
+
+        Tables(byte[] arena, int[] nameOffsets, int[] hashes, int[] table, int count) {
+            this.arena = arena;
+            this.nameOffsets = nameOffsets;
+            this.hashes = hashes;
+            this.table = table;
+            this.count = count;
+        }
+    }
+
+    private volatile Tables published = new Tables(new byte[1024], new int[65], new int[64], new int[128], 0);
+    // Guarded by this
+    private int arenaSize;
+
+    // The registry behind new Contestant(name)
+    public static ContestantRegistry global() {
+        return GLOBAL;
+    }
+
+    public int size() {
+        return published.count;
+    }
+
+    public int intern(String name) {
+        final byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        final int hash = name.hashCode();
+        final int id = find(published, bytes, hash);
+        return id != -1 ? id : internLocked(bytes, hash);
+    }
+
+    private synchronized int internLocked(byte[] bytes, int hash) {
+        final Tables tables = published;
+        int slot = slotOf(tables, bytes, hash);
+        if (tables.table[slot] != 0) {
+            return tables.table[slot] - 1;
+        }
+        final int id = tables.count;
+        byte[] arena = tables.arena;
+        if (arenaSize + bytes.length > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(arena.length * 2, arenaSize + bytes.length));
+        }
+        System.arraycopy(bytes, 0, arena, arenaSize, bytes.length);
+        arenaSize += bytes.length;
+        int[] hashes = tables.hashes;
+        int[] nameOffsets = tables.nameOffsets;
+        if (id + 1 == hashes.length) {
+            hashes = Arrays.copyOf(hashes, hashes.length * 2);
+            nameOffsets = Arrays.copyOf(nameOffsets, hashes.length + 1);
+        }
+        hashes[id] = hash;
+        nameOffsets[id + 1] = arenaSize;
+        int[] table = tables.table;
+        if ((id + 1) * 2 > table.length) {
+            table = rehash(hashes, id + 1, table.length * 2);
+        } else {
+            table[slot] = id + 1;
+        }
+        published = new Tables(arena, nameOffsets, hashes, table, id + 1);
+        return id;
+    }
+
+    // Returns the id registered for the name, or -1 if it has never been interned
+    public int find(String name) {
+        final byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        final int hash = name.hashCode();
+        final int id = find(published, bytes, hash);
+        return id != -1 ? id : findLocked(bytes, hash);
+    }
+
+    private synchronized int findLocked(byte[] bytes, int hash) {
+        final Tables tables = published;
+        return tables.table[slotOf(tables, bytes, hash)] - 1;
+    }
+
+    public String getName(int id) {
+        final Tables tables = published;
+        checkId(tables, id);
+        return new String(tables.arena, tables.nameOffsets[id], tables.nameOffsets[id + 1] - tables.nameOffsets[id],
+                StandardCharsets.UTF_8);
+    }
+
+    public int getHash(int id) {
+        final Tables tables = published;
+        checkId(tables, id);
+        return tables.hashes[id];
+    }
+
+    // Approximate bytes held by the arena and the index arrays
+    public long getMemoryUsage() {
+        final Tables tables = published;
+        return tables.arena.length + 4L * (tables.nameOffsets.length + tables.hashes.length + tables.table.length);
+    }
+
+    private static void checkId(Tables tables, int id) {
+        if (id < 0 || id >= tables.count) {
+            throw new IllegalArgumentException("Unknown contestant id " + id);
+        }
+    }
+
+    // Lock-free lookup; returns -1 if the name is not published yet or a slot is being written
+    private static int find(Tables tables, byte[] bytes, int hash) {
+        final int[] table = tables.table;
+        final int mask = table.length - 1;
+        int slot = mix(hash) & mask;
+        int entry;
+        while ((entry = table[slot]) != 0) {
+            final int id = entry - 1;
+            if (id >= tables.count) {
+                return -1;
+            }
+            if (tables.hashes[id] == hash && nameEquals(tables, id, bytes)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Returns the slot holding the name, or the empty slot where it belongs; needs the lock
+    private static int slotOf(Tables tables, byte[] bytes, int hash) {
+        final int[] table = tables.table;
+        final int mask = table.length - 1;
+        int slot = mix(hash) & mask;
+        while (table[slot] != 0) {
+            final int id = table[slot] - 1;
+            if (tables.hashes[id] == hash && nameEquals(tables, id, bytes)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static boolean nameEquals(Tables tables, int id, byte[] bytes) {
+        final int offset = tables.nameOffsets[id];
+        if (tables.nameOffsets[id + 1] - offset != bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (tables.arena[offset + i] != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int[] rehash(int[] hashes, int count, int capacity) {
+        final int[] resized = new int[capacity];
+        final int mask = resized.length - 1;
+        for (int id = 0; id < count; id++) {
+            int slot = mix(hashes[id]) & mask;
+            while (resized[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            resized[slot] = id + 1;
+        }
+        return resized;
+    }
+
+    // Spreads String hash codes, whose low bits cluster for similar names
+    static int mix(int hash) {
+        final int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
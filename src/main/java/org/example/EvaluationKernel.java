@@ -0,0 +1,29 @@
+package org.example;
+
+// How RoundEngine applies a round's decision to its contestants
+public enum EvaluationKernel {
+    // Visits the contestants still alive one by one through the alive bitset
+    SCALAR,
+    // Marks losers with the JDK Vector API, several contestants per instruction. Only
+    // available when the vector kernel was compiled (the "vector" build profile) and the
+    // JVM runs with --add-modules jdk.incubator.vector; RoundEngine uses SCALAR otherwise.
+    VECTOR;
+
+    static final LoserKernel VECTOR_KERNEL = loadVectorKernel();
+
+    public static boolean isVectorAvailable() {
+        return VECTOR_KERNEL != null;
+    }
+
+    // The kernel is looked up reflectively so this class still loads on Java 8 and on JVMs
+    // without the incubator module
+    private static LoserKernel loadVectorKernel() {
+        try {
+            return (LoserKernel) Class.forName("org.example.VectorLoserKernel")
+                    .getDeclaredMethod("create")
+                    .invoke(null);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
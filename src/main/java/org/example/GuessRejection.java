@@ -0,0 +1,26 @@
+package org.example;
+
+// Result codes for submitted guesses, used where throwing per guess would be too costly
+public final class GuessRejection {
+    public static final byte ACCEPTED = 0;
+    public static final byte NOT_PARTICIPATING = 1;
+    public static final byte ELIMINATED = 2;
+    public static final byte ALREADY_SUBMITTED = 3;
+    public static final byte OUT_OF_BOUNDS = 4;
+    public static final int CODES = 5;
+
+    private static final String[] MESSAGES = {
+            "Guess was accepted",
+            "Contestant is not participating in this contest",
+            "Contestant has been eliminated",
+            "Contestant has already submitted a guess",
+            "Guess must be between 0 and 100",
+    };
+
+    private GuessRejection() {
+    }
+
+    public static String getMessage(byte code) {
+        return MESSAGES[code];
+    }
+}
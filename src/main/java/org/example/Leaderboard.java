@@ -0,0 +1,237 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Standings of the contestants of one engine, kept up to date as penalties are applied.
+// Scores are small bounded integers, so contestants are bucketed by score: each bucket
+// holds a count and an intrusive doubly linked list of its contestants, and a penalty
+// moves a contestant between buckets in O(1). Within a bucket, contestants are listed in
+// the order they reached that score.
+//
+// Readers never see a round half applied: after each round the engine publishes an
+// immutable Snapshot of the bucket counts and the top contestants through a volatile field,
+// which any thread may query without locking. Publishing is O(buckets + top capacity) and
+// copies nothing per contestant.
+//
+// Per-contestant scores are versioned instead: every contestant has one entry holding
+// their score and the score before it, each with the publish version it became current in.
+// A snapshot answers getScore() and getRank() from the entry, so it keeps answering for
+// its own round until a contestant's score changed twice since; asking an older snapshot
+// about such a contestant throws IllegalStateException.
+//
+// Buckets range from MIN_SCORE to the starting score of the contest. Rulesets with larger
+// penalties can push scores further down; those contestants are eliminated either way, so
+// they share the MIN_SCORE bucket and the leaderboard reports MIN_SCORE for them.
+public final class Leaderboard {
+    // Lowest score with a bucket of its own: a contestant on 1 point losing a double
+    // penalty under the default rules
+    public static final int MIN_SCORE = -1;
+    // Highest starting score a leaderboard supports, so scores fit in a byte
+    public static final int MAX_SCORE = Byte.MAX_VALUE;
+    private static final int NONE = -1;
+    // Entries hold version << 32 | score << 24 | previous score << 16 | versions since the
+    // previous score, saturated at UNKNOWN
+    private static final int UNKNOWN = 0xFFFF;
+
+    // Only used by the engine's thread
+    private final byte[] scores;
+    private final int[] next;
+    private final int[] previous;
+    private final int[] heads;
+    private final int[] tails;
+    private final int[] counts;
+    private final int topCapacity;
+    private int version;
+
+    private final AtomicLongArray entries;
+    private volatile Snapshot snapshot;
+
+    public static final class Snapshot {
+        private final AtomicLongArray entries;
+        private final int version;
+        private final int round;
+        private final int[] counts;
+        // Number of contestants with a higher score than each bucket
+        private final int[] ahead;
+        private final int[] top;
+
+        private Snapshot(AtomicLongArray entries, int version, int round, int[] counts, int[] top) {
+            this.entries = entries;
+            this.version = version;
+            this.round = round;
+            this.counts = counts;
+            this.top = top;
+            this.ahead = new int[counts.length];
+            for (int bucket = counts.length - 2; bucket >= 0; bucket--) {
+                ahead[bucket] = ahead[bucket + 1] + counts[bucket + 1];
+            }
+        }
+
+        // The round that will be played next; the standings are those after round - 1
+        public int getRound() {
+            return round;
+        }
+
+        public int getContestantCount() {
+            return entries.length();
+        }
+
+        // The score, or MIN_SCORE for any score below it
+        public int getScore(int id) {
+            final long entry = entries.get(id);
+            final int changed = (int) (entry >>> 32);
+            if (changed <= version) {
+                return (byte) (entry >>> 24);
+            }
+            final int since = (int) entry & UNKNOWN;
+            if (since != UNKNOWN && changed - since <= version) {
+                return (byte) (entry >>> 16);
+            }
+            throw new IllegalStateException("Snapshot of round " + round + " is too old to report contestant " + id);
+        }
+
+        // 1 plus the number of contestants with a higher score, so ties share a rank
+        public int getRank(int id) {
+            return 1 + ahead[getScore(id) - MIN_SCORE];
+        }
+
+        // Number of contestants with the given score
+        public int getCount(int score) {
+            return score < MIN_SCORE || score - MIN_SCORE >= counts.length ? 0 : counts[score - MIN_SCORE];
+        }
+
+        // Ids of the leading contestants by descending score, at most the leaderboard's
+        // top capacity
+        public int[] getTop(int k) {
+            return Arrays.copyOf(top, Math.min(k, top.length));
+        }
+    }
+
+    // Top-K lists are available for k up to topCapacity
+    public Leaderboard(int contestants, int topCapacity) {
+        this(contestants, topCapacity, RoundEngine.STARTING_SCORE);
+    }
+
+    // For contests whose ruleset starts contestants on startingScore points
+    public Leaderboard(int contestants, int topCapacity, int startingScore) {
+        if (topCapacity < 0) {
+            throw new IllegalArgumentException("Top capacity must not be negative");
+        } else if (startingScore < 1 || startingScore > MAX_SCORE) {
+            throw new IllegalArgumentException("Starting score must be between 1 and " + MAX_SCORE);
+        }
+        final int buckets = startingScore - MIN_SCORE + 1;
+        this.heads = new int[buckets];
+        this.tails = new int[buckets];
+        this.counts = new int[buckets];
+        this.scores = new byte[contestants];
+        this.entries = new AtomicLongArray(contestants);
+        this.next = new int[contestants];
+        this.previous = new int[contestants];
+        this.topCapacity = Math.min(topCapacity, contestants);
+    }
+
+    public int size() {
+        return scores.length;
+    }
+
+    public int getTopCapacity() {
+        return topCapacity;
+    }
+
+    // The standings after the latest evaluated round; never null once attached to an engine
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    // Replaces all standings, e.g. after a reset or restore
+    void rebuild(int[] scores) {
+        if (scores.length != this.scores.length) {
+            throw new IllegalArgumentException("Leaderboard has a different number of contestants");
+        }
+        for (int id = 0; id < scores.length; id++) {
+            if (scores[id] - MIN_SCORE >= counts.length) {
+                throw new IllegalArgumentException("Score " + scores[id] + " is above the leaderboard");
+            }
+        }
+        Arrays.fill(heads, NONE);
+        Arrays.fill(tails, NONE);
+        Arrays.fill(counts, 0);
+        for (int id = 0; id < scores.length; id++) {
+            final int score = Math.max(scores[id], MIN_SCORE);
+            if (version == 0 || this.scores[id] != score) {
+                record(id, score);
+            }
+            this.scores[id] = (byte) score;
+            link(id, score - MIN_SCORE);
+        }
+    }
+
+    // Moves a contestant whose score changed to the bucket of the new score
+    void update(int id, int score) {
+        final int clamped = Math.max(score, MIN_SCORE);
+        if (clamped == scores[id]) {
+            return;
+        }
+        unlink(id, scores[id] - MIN_SCORE);
+        scores[id] = (byte) clamped;
+        link(id, clamped - MIN_SCORE);
+        record(id, clamped);
+    }
+
+    // Versions the new score for the snapshot that the next publish() makes visible
+    private void record(int id, int score) {
+        final int pending = version + 1;
+        final long entry = entries.get(id);
+        final int changed = (int) (entry >>> 32);
+        final long kept;
+        if (changed == pending) {
+            // Changed again within the same round; the previous score stays
+            kept = entry & 0xFFFFFFL;
+        } else {
+            final int since = changed == 0 ? UNKNOWN : Math.min(pending - changed, UNKNOWN);
+            kept = ((entry >>> 24) & 0xFF) << 16 | since;
+        }
+        entries.lazySet(id, (long) pending << 32 | (score & 0xFFL) << 24 | kept);
+    }
+
+    private void link(int id, int bucket) {
+        final int tail = tails[bucket];
+        previous[id] = tail;
+        next[id] = NONE;
+        if (tail == NONE) {
+            heads[bucket] = id;
+        } else {
+            next[tail] = id;
+        }
+        tails[bucket] = id;
+        counts[bucket]++;
+    }
+
+    private void unlink(int id, int bucket) {
+        if (previous[id] == NONE) {
+            heads[bucket] = next[id];
+        } else {
+            next[previous[id]] = next[id];
+        }
+        if (next[id] == NONE) {
+            tails[bucket] = previous[id];
+        } else {
+            previous[next[id]] = previous[id];
+        }
+        counts[bucket]--;
+    }
+
+    // Makes the current standings visible to readers
+    void publish(int round) {
+        final int[] top = new int[topCapacity];
+        int listed = 0;
+        for (int bucket = counts.length - 1; bucket >= 0 && listed < top.length; bucket--) {
+            for (int id = heads[bucket]; id != NONE && listed < top.length; id = next[id]) {
+                top[listed++] = id;
+            }
+        }
+        version++;
+        snapshot = new Snapshot(entries, version, round, counts.clone(), top);
+    }
+}
@@ -0,0 +1,12 @@
+package org.example;
+
+// Dense loser-marking pass over contestants 0 to count - 1: a contestant loses if their
+// guess was made in the given round (guessRounds[id] == round) and bit guesses[id] of
+// losingValues is set, where losingValues holds bits 0-31 of the guess values in word 0,
+// 32-63 in word 1 and so on. Losers have the penalty subtracted from their score and
+// their bit set in loserBits, which must be cleared beforehand; those left without points
+// are cleared from aliveBits. Returns the number of contestants eliminated.
+interface LoserKernel {
+    int markLosers(int[] guesses, int[] guessRounds, int round, int[] losingValues, int penalty,
+                   int[] scores, long[] loserBits, long[] aliveBits, int count);
+}
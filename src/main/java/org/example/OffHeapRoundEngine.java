@@ -0,0 +1,197 @@
+package org.example;
+
+import org.example.rules.RuleSet;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+// A RoundEngine for lobbies of tens of millions of contestants that keeps their state off
+// the Java heap: one byte per guess and one short per score in direct ByteBuffers, plus the
+// on-heap bitset of contestants still alive, i.e. a little over 3 bytes per contestant and
+// nothing for the garbage collector to trace. Scores must stay within a short, which the
+// starting score and penalties guarantee.
+//
+// Rounds are decided by RoundDecision from the same incrementally maintained statistics as
+// RoundEngine, so both engines produce identical results. A guess byte of 0xFF means no
+// guess; the pass that penalizes losers clears every guess it visits, which opens the next
+// round without a round stamp per contestant. Eliminated contestants must not submit guesses.
+public final class OffHeapRoundEngine {
+    private static final byte NO_GUESS = (byte) 0xFF;
+
+    private final int size;
+    private final ByteBuffer guesses;
+    private final ByteBuffer scores;
+    private final long[] aliveBits;
+    private int aliveCount;
+    private int guessCount;
+    private final RoundHistory history;
+    private int round = 1;
+    private TargetMode targetMode = TargetMode.FLOAT;
+
+    // Statistics of the current round, maintained as guesses arrive
+    private final int[] guessCounts = new int[RoundEngine.MAX_GUESS + 1];
+    private long guessSum;
+    private int duplicateValues;
+
+    private final RoundDecision decision = new RoundDecision();
+
+    public OffHeapRoundEngine(int contestants) {
+        this(contestants, RoundEngine.DEFAULT_HISTORY_CAPACITY);
+    }
+
+    public OffHeapRoundEngine(int contestants, int historyCapacity) {
+        if (contestants < 0 || contestants > Integer.MAX_VALUE / Short.BYTES) {
+            throw new IllegalArgumentException("Unsupported number of contestants: " + contestants);
+        }
+        this.size = contestants;
+        this.guesses = ByteBuffer.allocateDirect(contestants);
+        this.scores = ByteBuffer.allocateDirect(contestants * Short.BYTES).order(ByteOrder.nativeOrder());
+        this.aliveBits = new long[(contestants + 63) >>> 6];
+        this.history = new RoundHistory(historyCapacity);
+        reset();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getScore(int id) {
+        return scores.getShort(id * Short.BYTES);
+    }
+
+    public void setTargetMode(TargetMode targetMode) {
+        this.targetMode = targetMode;
+    }
+
+    // The round currently collecting guesses, starting at 1
+    public int getRound() {
+        return round;
+    }
+
+    public RoundHistory getHistory() {
+        return history;
+    }
+
+    public boolean isEliminated(int id) {
+        return getScore(id) <= 0;
+    }
+
+    public int getRemainingContestants() {
+        return aliveCount;
+    }
+
+    public boolean hasGuessed(int id) {
+        return guesses.get(id) != NO_GUESS;
+    }
+
+    public int getGuess(int id) {
+        if (!hasGuessed(id)) {
+            throw new IllegalStateException("Contestant has not submitted a guess this round");
+        }
+        return guesses.get(id);
+    }
+
+    // Number of contestants who have guessed in the current round
+    public int getGuessCount() {
+        return guessCount;
+    }
+
+    // Bytes of contestant state held by this engine, off-heap buffers and alive bitset
+    // included. The round history is not counted.
+    public long getMemoryUsage() {
+        return (long) guesses.capacity() + scores.capacity() + (long) aliveBits.length * Long.BYTES;
+    }
+
+    public double getBytesPerContestant() {
+        return size == 0 ? 0 : (double) getMemoryUsage() / size;
+    }
+
+    // Callers are expected to have validated the id and the guess bounds
+    public void submitGuess(int id, int guess) {
+        final byte previous = guesses.get(id);
+        if (previous == NO_GUESS) {
+            guessCount++;
+        } else {
+            if (guessCounts[previous]-- == 2) {
+                duplicateValues--;
+            }
+            guessSum -= previous;
+        }
+        guesses.put(id, (byte) guess);
+        if (++guessCounts[guess] == 2) {
+            duplicateValues++;
+        }
+        guessSum += guess;
+    }
+
+    public void evaluateRound() {
+        decision.decide(guessCounts, guessSum, guessCount, duplicateValues, aliveCount, targetMode, RuleSet.DEFAULT);
+        closeRound(decision);
+    }
+
+    // Adds the statistics of the current round to the given aggregate
+    public void collectStatistics(RoundStatistics into) {
+        into.add(guessCounts, guessSum, guessCount, aliveCount);
+    }
+
+    // Closes the current round with a decision made from its statistics: penalizes losers,
+    // records them in the history, clears every guess and opens the next round
+    public void closeRound(RoundDecision decision) {
+        final boolean[] losingGuesses = decision.losingGuesses;
+        final int penalty = decision.getPenalty();
+        history.begin(round, decision.getTarget(), penalty, decision.getRules());
+        for (int word = 0; word < aliveBits.length; word++) {
+            long bits = aliveBits[word];
+            while (bits != 0) {
+                final int id = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                final byte guess = guesses.get(id);
+                if (guess == NO_GUESS) {
+                    continue;
+                }
+                guesses.put(id, NO_GUESS);
+                if (losingGuesses[guess]) {
+                    final int score = scores.getShort(id * Short.BYTES) - penalty;
+                    // Decisions can come from elsewhere with any penalty: saturate instead of
+                    // letting the short wrap around and bring an eliminated contestant back
+                    scores.putShort(id * Short.BYTES,
+                            (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, score)));
+                    history.addLoser(id);
+                    if (score <= 0) {
+                        aliveBits[word] &= ~(1L << id);
+                        aliveCount--;
+                    }
+                }
+            }
+        }
+
+        round++;
+        guessCount = 0;
+        Arrays.fill(guessCounts, 0);
+        guessSum = 0;
+        duplicateValues = 0;
+    }
+
+    // Starts a new game in the current round: every contestant is back at the starting
+    // score and guesses already submitted this round are discarded
+    public void reset() {
+        for (int id = 0; id < size; id++) {
+            guesses.put(id, NO_GUESS);
+            scores.putShort(id * Short.BYTES, (short) RoundEngine.STARTING_SCORE);
+        }
+        Arrays.fill(aliveBits, -1L);
+        if ((size & 63) != 0) {
+            aliveBits[aliveBits.length - 1] = (1L << size) - 1;
+        }
+        aliveCount = size;
+        guessCount = 0;
+        Arrays.fill(guessCounts, 0);
+        guessSum = 0;
+        duplicateValues = 0;
+    }
+
+    public boolean finished() {
+        return aliveCount == 0;
+    }
+}
@@ -0,0 +1,74 @@
+package org.example;
+
+import org.example.rules.RoundContext;
+import org.example.rules.RuleSet;
+
+// The outcome of a round as decided by a RuleSet: which guess values lose, the penalty they
+// pay, the target and the special rules that applied. Every rule only depends on the guess
+// histogram and the number of contestants still in the game, so a decision can be made once
+// from RoundStatistics merged across many engines and then applied to each of them with
+// RoundEngine.closeRound().
+public final class RoundDecision {
+    final boolean[] losingGuesses = new boolean[RoundEngine.MAX_GUESS + 1];
+    private final RoundContext context = new RoundContext();
+    private float target;
+    private int penalty;
+    private int rules;
+
+    public RoundDecision() {
+    }
+
+    public RoundDecision(RoundDecision other) {
+        System.arraycopy(other.losingGuesses, 0, losingGuesses, 0, losingGuesses.length);
+        this.target = other.target;
+        this.penalty = other.penalty;
+        this.rules = other.rules;
+    }
+
+    // Recreates a decision received from elsewhere, e.g. a cluster coordinator
+    public RoundDecision(boolean[] losingGuesses, float target, int penalty, int rules) {
+        if (losingGuesses.length != this.losingGuesses.length) {
+            throw new IllegalArgumentException("Expected a decision for every guess value");
+        }
+        System.arraycopy(losingGuesses, 0, this.losingGuesses, 0, losingGuesses.length);
+        this.target = target;
+        this.penalty = penalty;
+        this.rules = rules;
+    }
+
+    public void decide(RoundStatistics statistics, TargetMode targetMode) {
+        decide(statistics, targetMode, RuleSet.DEFAULT);
+    }
+
+    public void decide(RoundStatistics statistics, TargetMode targetMode, RuleSet ruleSet) {
+        decide(statistics.guessCounts, statistics.sum, statistics.count, statistics.duplicateValues,
+                statistics.remainingContestants, targetMode, ruleSet);
+    }
+
+    void decide(int[] counts, long sum, int counted, int duplicateValues, int remainingContestants,
+                TargetMode targetMode, RuleSet ruleSet) {
+        ruleSet.decide(context, counts, sum, counted, duplicateValues, remainingContestants, targetMode);
+        context.copyLosingGuesses(losingGuesses);
+        target = context.getTarget();
+        penalty = context.getPenalty();
+        rules = context.getRules();
+    }
+
+    public boolean isLosing(int guess) {
+        return losingGuesses[guess];
+    }
+
+    // The multiplier of the ruleset times the average guess; NaN if nobody guessed
+    public float getTarget() {
+        return target;
+    }
+
+    public int getPenalty() {
+        return penalty;
+    }
+
+    // Bitmask of the RoundEngine.RULE_* constants that changed the outcome
+    public int getRules() {
+        return rules;
+    }
+}
@@ -0,0 +1,338 @@
+package org.example;
+
+import org.example.rules.RuleSet;
+
+import java.util.Arrays;
+
+// Evaluates rounds for contestants identified by dense int ids (0 to size() - 1).
+// Guesses and scores are kept in primitive arrays and all scratch space used while
+// evaluating a round is allocated up front, so evaluateRound() does not allocate.
+//
+// Rounds follow a fixed lifecycle: a round is open from the moment the previous one was
+// evaluated, collects guesses, and is closed by evaluateRound(), which also opens the next.
+// Each guess is stamped with the round it was made in, so opening a round is O(1): guesses
+// from earlier rounds are simply no longer current.
+//
+// Contestants still in the game are tracked in a bitset and a counter that only change
+// when a score drops to zero, so finished() is O(1) and both evaluation passes only visit
+// contestants that are alive. Eliminated contestants must not submit guesses.
+//
+// The round statistics (a histogram of the guesses, their sum and the number of guess values
+// submitted more than once) are updated by every submitGuess(), so evaluateRound() derives
+// the target and every rule from the 101 histogram buckets and only the final pass that
+// penalizes losers is proportional to the number of contestants. Deciding a round and
+// applying the decision are separate steps, see RoundDecision.
+//
+// The multiplier, starting score, penalty and special rules come from a RuleSet, which
+// compiles the rules that apply for each number of remaining contestants ahead of time.
+//
+// While most contestants are still alive, the decision is applied by a dense LoserKernel
+// when the vector kernel is available (see EvaluationKernel); otherwise, and once the
+// lobby has thinned out, by walking the alive bitset.
+public final class RoundEngine {
+    public static final int STARTING_SCORE = 10;
+    public static final int MIN_GUESS = 0;
+    public static final int MAX_GUESS = 100;
+    public static final int DEFAULT_HISTORY_CAPACITY = 16;
+
+    // Special rules that changed the outcome of a round, see RoundHistory.getRules()
+    public static final int RULE_DUPLICATE_ELIMINATION = 1;
+    public static final int RULE_DOUBLE_PENALTY = 1 << 1;
+    public static final int RULE_ZERO_VS_HUNDRED = 1 << 2;
+
+    private final int[] scores;
+    private final int[] guesses;
+    private final int[] guessRounds;
+    private final long[] aliveBits;
+    private int aliveCount;
+    private int guessCount;
+    private final RoundHistory history;
+    private final RuleSet ruleSet;
+    private int round = 1;
+    private TargetMode targetMode = TargetMode.FLOAT;
+    private Leaderboard leaderboard;
+    private LoserKernel kernel = EvaluationKernel.VECTOR_KERNEL;
+
+    // Statistics of the current round, maintained as guesses arrive
+    private final int[] guessCounts = new int[MAX_GUESS + 1];
+    private long guessSum;
+    private int duplicateValues;
+
+    // Scratch space for deciding the current round and for the loser kernel
+    private final RoundDecision decision = new RoundDecision();
+    private final int[] losingValues = new int[(MAX_GUESS >>> 5) + 1];
+    private long[] loserBits;
+
+    public RoundEngine(int contestants) {
+        this(contestants, DEFAULT_HISTORY_CAPACITY);
+    }
+
+    public RoundEngine(int contestants, int historyCapacity) {
+        this(contestants, historyCapacity, RuleSet.DEFAULT);
+    }
+
+    public RoundEngine(int contestants, int historyCapacity, RuleSet ruleSet) {
+        this.ruleSet = ruleSet;
+        this.scores = new int[contestants];
+        this.guesses = new int[contestants];
+        this.guessRounds = new int[contestants];
+        this.aliveBits = new long[(contestants + 63) >>> 6];
+        this.history = new RoundHistory(historyCapacity);
+        reviveAll();
+    }
+
+    public int size() {
+        return scores.length;
+    }
+
+    public int getScore(int id) {
+        return scores[id];
+    }
+
+    public RuleSet getRuleSet() {
+        return ruleSet;
+    }
+
+    public TargetMode getTargetMode() {
+        return targetMode;
+    }
+
+    public void setTargetMode(TargetMode targetMode) {
+        this.targetMode = targetMode;
+    }
+
+    // VECTOR falls back to SCALAR if the vector kernel is not available
+    public void setEvaluationKernel(EvaluationKernel evaluationKernel) {
+        this.kernel = evaluationKernel == EvaluationKernel.VECTOR ? EvaluationKernel.VECTOR_KERNEL : null;
+    }
+
+    public EvaluationKernel getEvaluationKernel() {
+        return kernel == null ? EvaluationKernel.SCALAR : EvaluationKernel.VECTOR;
+    }
+
+    // Keeps the given leaderboard up to date from now on; null detaches it
+    public void setLeaderboard(Leaderboard leaderboard) {
+        if (leaderboard != null) {
+            leaderboard.rebuild(scores);
+            leaderboard.publish(round);
+        }
+        this.leaderboard = leaderboard;
+    }
+
+    public Leaderboard getLeaderboard() {
+        return leaderboard;
+    }
+
+    // The round currently collecting guesses, starting at 1
+    public int getRound() {
+        return round;
+    }
+
+    public RoundHistory getHistory() {
+        return history;
+    }
+
+    public boolean isEliminated(int id) {
+        return scores[id] <= 0;
+    }
+
+    public int getRemainingContestants() {
+        return aliveCount;
+    }
+
+    // Returns the first contestant at or after the given id that is still alive, or -1
+    public int nextAlive(int fromId) {
+        int word = fromId >>> 6;
+        if (word >= aliveBits.length) {
+            return -1;
+        }
+        long bits = aliveBits[word] & (-1L << fromId);
+        while (bits == 0) {
+            if (++word == aliveBits.length) {
+                return -1;
+            }
+            bits = aliveBits[word];
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(bits);
+    }
+
+    public boolean hasGuessed(int id) {
+        return guessRounds[id] == round;
+    }
+
+    public int getGuess(int id) {
+        if (!hasGuessed(id)) {
+            throw new IllegalStateException("Contestant has not submitted a guess this round");
+        }
+        return guesses[id];
+    }
+
+    // Number of contestants who have guessed in the current round
+    public int getGuessCount() {
+        return guessCount;
+    }
+
+    // Callers are expected to have validated the id and the guess bounds
+    public void submitGuess(int id, int guess) {
+        if (guessRounds[id] != round) {
+            guessCount++;
+        } else {
+            removeFromStatistics(guesses[id]);
+        }
+        guesses[id] = guess;
+        guessRounds[id] = round;
+        addToStatistics(guess);
+    }
+
+    private void addToStatistics(int guess) {
+        if (++guessCounts[guess] == 2) {
+            duplicateValues++;
+        }
+        guessSum += guess;
+    }
+
+    private void removeFromStatistics(int guess) {
+        if (guessCounts[guess]-- == 2) {
+            duplicateValues--;
+        }
+        guessSum -= guess;
+    }
+
+    private void clearStatistics() {
+        Arrays.fill(guessCounts, 0);
+        guessSum = 0;
+        duplicateValues = 0;
+    }
+
+    public void evaluateRound() {
+        decision.decide(guessCounts, guessSum, guessCount, duplicateValues, aliveCount, targetMode, ruleSet);
+        closeRound(decision);
+    }
+
+    // Adds the statistics of the current round to the given aggregate
+    public void collectStatistics(RoundStatistics into) {
+        into.add(guessCounts, guessSum, guessCount, aliveCount);
+    }
+
+    // Closes the current round with a decision made from its statistics, possibly merged
+    // with those of other engines: penalizes losers, records them in the history and opens
+    // the next round
+    public void closeRound(RoundDecision decision) {
+        final boolean[] losingGuesses = decision.losingGuesses;
+        final int penalty = decision.getPenalty();
+        history.begin(round, decision.getTarget(), penalty, decision.getRules());
+        // The dense kernel visits every contestant, so it only pays off while most are alive
+        if (kernel != null && aliveCount >= scores.length / 2) {
+            closeRoundDense(losingGuesses, penalty);
+        } else {
+            closeRoundSparse(losingGuesses, penalty);
+        }
+
+        // Open the next round; stale guesses are ignored because of their round stamp
+        round++;
+        guessCount = 0;
+        clearStatistics();
+        if (leaderboard != null) {
+            leaderboard.publish(round);
+        }
+    }
+
+    private void closeRoundDense(boolean[] losingGuesses, int penalty) {
+        Arrays.fill(losingValues, 0);
+        for (int guess = MIN_GUESS; guess <= MAX_GUESS; guess++) {
+            if (losingGuesses[guess]) {
+                losingValues[guess >>> 5] |= 1 << (guess & 31);
+            }
+        }
+        if (loserBits == null) {
+            loserBits = new long[aliveBits.length];
+        }
+        // Only contestants still alive can have guessed, so every loser was alive
+        aliveCount -= kernel.markLosers(guesses, guessRounds, round, losingValues, penalty, scores, loserBits,
+                aliveBits, scores.length);
+        history.addLosers(loserBits);
+        if (leaderboard != null) {
+            for (int word = 0; word < loserBits.length; word++) {
+                for (long bits = loserBits[word]; bits != 0; bits &= bits - 1) {
+                    final int id = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    leaderboard.update(id, scores[id]);
+                }
+            }
+        }
+        Arrays.fill(loserBits, 0);
+    }
+
+    private void closeRoundSparse(boolean[] losingGuesses, int penalty) {
+        for (int id = nextAlive(0); id >= 0; id = nextAlive(id + 1)) {
+            if (guessRounds[id] == round && losingGuesses[guesses[id]]) {
+                scores[id] -= penalty;
+                history.addLoser(id);
+                if (leaderboard != null) {
+                    leaderboard.update(id, scores[id]);
+                }
+                if (scores[id] <= 0) {
+                    aliveBits[id >>> 6] &= ~(1L << id);
+                    aliveCount--;
+                }
+            }
+        }
+    }
+
+    // Starts a new game in the current round: every contestant is back at the starting
+    // score of the ruleset and guesses already submitted this round are discarded
+    public void reset() {
+        reviveAll();
+        Arrays.fill(guessRounds, 0);
+        guessCount = 0;
+        clearStatistics();
+        if (leaderboard != null) {
+            leaderboard.rebuild(scores);
+            leaderboard.publish(round);
+        }
+    }
+
+    // Restores the state captured by a snapshot: the round collecting guesses, every
+    // contestant's score and their guess in that round, or -1 if they had not guessed yet.
+    // Guesses of eliminated contestants are ignored. The round history starts out empty.
+    public void restore(int round, int[] scores, int[] guesses) {
+        if (scores.length != this.scores.length || guesses.length != this.guesses.length) {
+            throw new IllegalArgumentException("Snapshot has a different number of contestants");
+        } else if (round < 1) {
+            throw new IllegalArgumentException("Rounds start at 1");
+        }
+        this.round = round;
+        Arrays.fill(aliveBits, 0);
+        aliveCount = 0;
+        guessCount = 0;
+        clearStatistics();
+        for (int id = 0; id < scores.length; id++) {
+            this.scores[id] = scores[id];
+            this.guessRounds[id] = 0;
+            if (scores[id] > 0) {
+                aliveBits[id >>> 6] |= 1L << id;
+                aliveCount++;
+                if (guesses[id] >= 0) {
+                    submitGuess(id, guesses[id]);
+                }
+            }
+        }
+        history.clear();
+        if (leaderboard != null) {
+            leaderboard.rebuild(scores);
+            leaderboard.publish(round);
+        }
+    }
+
+    private void reviveAll() {
+        Arrays.fill(scores, ruleSet.getStartingScore());
+        Arrays.fill(aliveBits, -1L);
+        if ((scores.length & 63) != 0) {
+            aliveBits[aliveBits.length - 1] = (1L << scores.length) - 1;
+        }
+        aliveCount = scores.length;
+    }
+
+    public boolean finished() {
+        return aliveCount == 0;
+    }
+}
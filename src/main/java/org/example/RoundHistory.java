@@ -0,0 +1,133 @@
+package org.example;
+
+import java.util.Arrays;
+
+// Bounded ring buffer with the outcome of the most recently evaluated rounds.
+// Slots and their loser buffers are reused once the buffer wraps around, so recording
+// a round only allocates when a round has more losers than any round before it.
+public final class RoundHistory {
+    private final int[] rounds;
+    private final float[] targets;
+    private final int[] penalties;
+    private final int[] rules;
+    private final int[][] losers;
+    private final int[] loserCounts;
+    private int latestRound;
+    // Slot of latestRound, so streaming losers does not divide per loser
+    private int latestSlot;
+    // Number of consecutive rounds up to latestRound that are held, at most the capacity
+    private int recorded;
+
+    public RoundHistory(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("History capacity must be at least 1");
+        }
+        this.rounds = new int[capacity];
+        this.targets = new float[capacity];
+        this.penalties = new int[capacity];
+        this.rules = new int[capacity];
+        this.losers = new int[capacity][];
+        this.loserCounts = new int[capacity];
+        Arrays.fill(losers, new int[0]);
+    }
+
+    public int capacity() {
+        return rounds.length;
+    }
+
+    // Rounds are numbered from 1, so 0 means no round has been recorded yet
+    public int latestRound() {
+        return latestRound;
+    }
+
+    public int oldestRound() {
+        return recorded == 0 ? 0 : latestRound - recorded + 1;
+    }
+
+    public boolean contains(int round) {
+        return round <= latestRound && round > latestRound - recorded;
+    }
+
+    public float getTarget(int round) {
+        return targets[slot(round)];
+    }
+
+    public int getPenalty(int round) {
+        return penalties[slot(round)];
+    }
+
+    // Bitmask of the RoundEngine.RULE_* constants for the special rules that applied
+    public int getRules(int round) {
+        return rules[slot(round)];
+    }
+
+    public int getLoserCount(int round) {
+        return loserCounts[slot(round)];
+    }
+
+    public int getLoser(int round, int index) {
+        int slot = slot(round);
+        if (index < 0 || index >= loserCounts[slot]) {
+            throw new IndexOutOfBoundsException("Round " + round + " has no loser at index " + index);
+        }
+        return losers[slot][index];
+    }
+
+    private int slot(int round) {
+        if (!contains(round)) {
+            throw new IllegalArgumentException("Round " + round + " is not in the history");
+        }
+        return round % rounds.length;
+    }
+
+    // Recording happens in three steps so the engine can stream losers without a temporary list
+    void begin(int round, float target, int penalty, int rules) {
+        int slot = round % rounds.length;
+        rounds[slot] = round;
+        targets[slot] = target;
+        penalties[slot] = penalty;
+        this.rules[slot] = rules;
+        loserCounts[slot] = 0;
+        recorded = round == latestRound + 1 ? Math.min(recorded + 1, rounds.length) : 1;
+        latestRound = round;
+        latestSlot = slot;
+    }
+
+    // Appends the ids of every bit set in the given bitset, in ascending order
+    void addLosers(long[] bits) {
+        final int slot = latestSlot;
+        int count = loserCounts[slot];
+        int total = count;
+        for (long word : bits) {
+            total += Long.bitCount(word);
+        }
+        if (total > losers[slot].length) {
+            losers[slot] = Arrays.copyOf(losers[slot], Math.max(total, losers[slot].length * 2));
+        }
+        final int[] ids = losers[slot];
+        for (int word = 0; word < bits.length; word++) {
+            long remaining = bits[word];
+            while (remaining != 0) {
+                ids[count++] = (word << 6) + Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+            }
+        }
+        loserCounts[slot] = count;
+    }
+
+    // Forgets every recorded round, e.g. when a contest is restored from a snapshot
+    void clear() {
+        recorded = 0;
+        latestRound = 0;
+    }
+
+    void addLoser(int id) {
+        int slot = latestSlot;
+        int count = loserCounts[slot];
+        if (count == losers[slot].length) {
+            losers[slot] = Arrays.copyOf(losers[slot], Math.max(4, count * 2));
+        }
+        losers[slot][count] = id;
+        loserCounts[slot] = count + 1;
+    }
+}
@@ -0,0 +1,63 @@
+package org.example;
+
+import java.util.Arrays;
+
+// Everything the rules of a round depend on: a histogram of the guesses, their sum and count,
+// and the number of contestants still in the game. Statistics of several engines holding
+// disjoint sets of contestants can be added up and decided on as if they were one engine.
+public final class RoundStatistics {
+    final int[] guessCounts = new int[RoundEngine.MAX_GUESS + 1];
+    long sum;
+    int count;
+    int duplicateValues;
+    int remainingContestants;
+
+    public RoundStatistics() {
+    }
+
+    public RoundStatistics(RoundStatistics other) {
+        add(other);
+    }
+
+    public void add(RoundStatistics other) {
+        add(other.guessCounts, other.sum, other.count, other.remainingContestants);
+    }
+
+    void add(int[] guessCounts, long sum, int count, int remainingContestants) {
+        for (int guess = RoundEngine.MIN_GUESS; guess <= RoundEngine.MAX_GUESS; guess++) {
+            final int before = this.guessCounts[guess];
+            final int after = before + guessCounts[guess];
+            if (before < 2 && after >= 2) {
+                duplicateValues++;
+            }
+            this.guessCounts[guess] = after;
+        }
+        this.sum += sum;
+        this.count += count;
+        this.remainingContestants += remainingContestants;
+    }
+
+    public void clear() {
+        Arrays.fill(guessCounts, 0);
+        sum = 0;
+        count = 0;
+        duplicateValues = 0;
+        remainingContestants = 0;
+    }
+
+    public int getGuessCount(int guess) {
+        return guessCounts[guess];
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getRemainingContestants() {
+        return remainingContestants;
+    }
+}
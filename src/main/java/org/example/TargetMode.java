@@ -0,0 +1,12 @@
+package org.example;
+
+// How the round target, 0.8 times the average guess, is computed and compared
+public enum TargetMode {
+    // Single-precision float arithmetic, as in the original implementation. With very large
+    // lobbies the float sum loses precision and near-ties can be decided by rounding error.
+    FLOAT,
+    // The target is the rational 4 * sum / (5 * n) and distances are compared by
+    // cross-multiplying in long arithmetic, so the winners only depend on the guesses and
+    // not on the order or grouping in which they were summed
+    EXACT
+}
@@ -0,0 +1,80 @@
+package org.example.cluster;
+
+import org.example.RoundDecision;
+import org.example.RoundStatistics;
+import org.example.TargetMode;
+import org.example.rules.RuleSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// Closes rounds of a lobby split across shards. Each round it gathers the statistics of
+// every shard, merges them, decides the round once for the whole lobby and broadcasts the
+// decision, so every shard penalizes its losers exactly as a single contest would. Rounds
+// are decided by the ruleset of the shards, which must all be played with the same one.
+public final class ContestCoordinator {
+    private final ShardChannel[] shards;
+    private TargetMode targetMode = TargetMode.FLOAT;
+    private final RuleSet ruleSet;
+    private int round = 1;
+
+    private final RoundStatistics merged = new RoundStatistics();
+    private final RoundDecision decision = new RoundDecision();
+    // Whether the decision of the current round was made but not applied by every shard yet
+    private boolean decided;
+
+    public ContestCoordinator(ShardChannel... shards) {
+        this.shards = shards.clone();
+        RuleSet common = RuleSet.DEFAULT;
+        for (int i = 0; i < shards.length; i++) {
+            final RuleSet ruleSet = shards[i].getRuleSet().join();
+            if (i == 0) {
+                common = ruleSet;
+            } else if (ruleSet != common) {
+                throw new IllegalArgumentException("Shard " + i + " is played with a different ruleset");
+            }
+        }
+        this.ruleSet = common;
+    }
+
+    public void setTargetMode(TargetMode targetMode) {
+        this.targetMode = targetMode;
+    }
+
+    public RuleSet getRuleSet() {
+        return ruleSet;
+    }
+
+    public int getRound() {
+        return round;
+    }
+
+    // Closes the current round on every shard and returns how it was decided. Failures of a
+    // shard are rethrown as a CompletionException; the round stays open in that case. Once
+    // the round was decided, a retry broadcasts the same decision again: shards that already
+    // applied it skip it, since their statistics have moved on to the next round.
+    public RoundDecision evaluateRound() {
+        if (!decided) {
+            List<CompletableFuture<RoundStatistics>> partials = new ArrayList<>(shards.length);
+            for (ShardChannel shard : shards) {
+                partials.add(shard.collectStatistics(round));
+            }
+            merged.clear();
+            for (CompletableFuture<RoundStatistics> partial : partials) {
+                merged.add(partial.join());
+            }
+            decision.decide(merged, targetMode, ruleSet);
+            decided = true;
+        }
+
+        CompletableFuture<?>[] closed = new CompletableFuture<?>[shards.length];
+        for (int i = 0; i < shards.length; i++) {
+            closed[i] = shards[i].closeRound(round, decision);
+        }
+        CompletableFuture.allOf(closed).join();
+        decided = false;
+        round++;
+        return new RoundDecision(decision);
+    }
+}
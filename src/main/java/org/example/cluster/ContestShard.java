@@ -0,0 +1,85 @@
+package org.example.cluster;
+
+import org.example.BeautyContest;
+import org.example.Contestant;
+import org.example.RoundDecision;
+import org.example.RoundStatistics;
+import org.example.rules.RuleSet;
+
+// One node's partition of a sharded lobby. Contestants submit their guesses to the shard
+// holding them; rounds are only closed by the coordinator, which decides them from the
+// statistics of every shard.
+//
+// Collecting the statistics of a round freezes it: the coordinator decides the round from
+// exactly those statistics, so guesses arriving until it closes the round are rejected
+// rather than judged against a decision they took no part in. A round stays frozen until
+// the coordinator closes it, including after a failed attempt.
+//
+// Closing a round the shard has just closed again is a no-op, so a coordinator can retry a
+// decision that only some of the shards applied.
+public final class ContestShard {
+    private final BeautyContest contest;
+    // The round whose statistics were collected, or 0 while guesses are accepted
+    private int frozenRound;
+    // The last round closed by the coordinator
+    private int closedRound;
+
+    public ContestShard(Contestant... contestants) {
+        this(RuleSet.DEFAULT, contestants);
+    }
+
+    public ContestShard(RuleSet ruleSet, Contestant... contestants) {
+        this.contest = new BeautyContest(ruleSet, contestants);
+    }
+
+    public RuleSet getRuleSet() {
+        return contest.getRuleSet();
+    }
+
+    public synchronized void submitGuess(Contestant c, Integer guess) throws IllegalArgumentException {
+        if (frozenRound == contest.getRound()) {
+            throw new IllegalArgumentException("Round " + frozenRound + " is being closed");
+        }
+        contest.submitGuess(c, guess);
+    }
+
+    public synchronized Integer getContestantScore(Contestant c) {
+        return contest.getContestantScore(c);
+    }
+
+    public synchronized int getContestantCount() {
+        return contest.getContestantCount();
+    }
+
+    public synchronized int getRemainingContestants() {
+        return contest.getRemainingContestants();
+    }
+
+    public synchronized int getRound() {
+        return contest.getRound();
+    }
+
+    synchronized RoundStatistics collectStatistics(int round) {
+        checkRound(round);
+        frozenRound = round;
+        RoundStatistics statistics = new RoundStatistics();
+        contest.collectStatistics(statistics);
+        return statistics;
+    }
+
+    synchronized void closeRound(int round, RoundDecision decision) {
+        if (round == closedRound && round == contest.getRound() - 1) {
+            return;
+        }
+        checkRound(round);
+        contest.evaluateRound(decision);
+        frozenRound = 0;
+        closedRound = round;
+    }
+
+    private void checkRound(int round) {
+        if (round != contest.getRound()) {
+            throw new IllegalStateException("Shard is in round " + contest.getRound() + ", not " + round);
+        }
+    }
+}
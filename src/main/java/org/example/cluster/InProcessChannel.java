@@ -0,0 +1,48 @@
+package org.example.cluster;
+
+import org.example.RoundDecision;
+import org.example.RoundStatistics;
+import org.example.rules.RuleSet;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Stands in for the network between a coordinator and a shard in the same JVM. Requests run
+// on a thread of their own, as they would on the shard's node, and every message is copied
+// on the way so the two sides share no state.
+public final class InProcessChannel implements ShardChannel {
+    private final ContestShard shard;
+    private final ExecutorService node;
+
+    public InProcessChannel(ContestShard shard, String name) {
+        this.shard = shard;
+        this.node = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public CompletableFuture<RuleSet> getRuleSet() {
+        return CompletableFuture.supplyAsync(shard::getRuleSet, node);
+    }
+
+    @Override
+    public CompletableFuture<RoundStatistics> collectStatistics(int round) {
+        return CompletableFuture.supplyAsync(() -> shard.collectStatistics(round), node)
+                .thenApply(RoundStatistics::new);
+    }
+
+    @Override
+    public CompletableFuture<Void> closeRound(int round, RoundDecision decision) {
+        final RoundDecision sent = new RoundDecision(decision);
+        return CompletableFuture.runAsync(() -> shard.closeRound(round, sent), node);
+    }
+
+    @Override
+    public void close() {
+        node.shutdown();
+    }
+}
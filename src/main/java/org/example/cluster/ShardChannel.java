@@ -0,0 +1,24 @@
+package org.example.cluster;
+
+import org.example.RoundDecision;
+import org.example.RoundStatistics;
+import org.example.rules.RuleSet;
+
+import java.io.Closeable;
+import java.util.concurrent.CompletableFuture;
+
+// How a coordinator reaches one shard. Both calls are requests to a remote node: the
+// statistics and the decision are messages, so neither side may keep a reference to the
+// other side's objects. Rulesets are the exception: they are configuration every node is
+// deployed with, so both sides refer to the same instances.
+public interface ShardChannel extends Closeable {
+    // Asks the shard for the ruleset its contest is played with
+    CompletableFuture<RuleSet> getRuleSet();
+
+    // Asks the shard for the statistics of the given round, which must be its current one
+    CompletableFuture<RoundStatistics> collectStatistics(int round);
+
+    // Has the shard close the given round with a decision made from the merged statistics;
+    // repeating the request for the round the shard has just closed does nothing
+    CompletableFuture<Void> closeRound(int round, RoundDecision decision);
+}
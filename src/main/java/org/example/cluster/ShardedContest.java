@@ -0,0 +1,94 @@
+package org.example.cluster;
+
+import org.example.Contestant;
+import org.example.RoundDecision;
+import org.example.TargetMode;
+import org.example.rules.RuleSet;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+
+// A lobby split across shards that all live in this JVM and talk to their coordinator
+// through InProcessChannels. Contestants are assigned to shards by their registry id.
+// Scores and round outcomes are the same as those of one BeautyContest with every contestant.
+public final class ShardedContest implements Closeable {
+    private final ContestShard[] shards;
+    private final InProcessChannel[] channels;
+    private final ContestCoordinator coordinator;
+
+    public ShardedContest(int shardCount, Contestant... contestants) {
+        this(RuleSet.DEFAULT, shardCount, contestants);
+    }
+
+    public ShardedContest(RuleSet ruleSet, int shardCount, Contestant... contestants) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("A contest needs at least one shard");
+        }
+        List<List<Contestant>> partitions = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            partitions.add(new ArrayList<>());
+        }
+        for (Contestant c : contestants) {
+            partitions.get(shardOf(c, shardCount)).add(c);
+        }
+        this.shards = new ContestShard[shardCount];
+        this.channels = new InProcessChannel[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new ContestShard(ruleSet, partitions.get(i).toArray(new Contestant[0]));
+            channels[i] = new InProcessChannel(shards[i], "contest-shard-" + i);
+        }
+        this.coordinator = new ContestCoordinator(channels);
+    }
+
+    private static int shardOf(Contestant c, int shardCount) {
+        return c.getId() % shardCount;
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    public ContestShard getShard(int index) {
+        return shards[index];
+    }
+
+    public void setTargetMode(TargetMode targetMode) {
+        coordinator.setTargetMode(targetMode);
+    }
+
+    public void submitGuess(Contestant c, Integer guess) throws IllegalArgumentException {
+        shards[shardOf(c, shards.length)].submitGuess(c, guess);
+    }
+
+    public Integer getContestantScore(Contestant c) {
+        return shards[shardOf(c, shards.length)].getContestantScore(c);
+    }
+
+    public int getRemainingContestants() {
+        int remaining = 0;
+        for (ContestShard shard : shards) {
+            remaining += shard.getRemainingContestants();
+        }
+        return remaining;
+    }
+
+    public RoundDecision evaluateRound() {
+        return coordinator.evaluateRound();
+    }
+
+    public int getRound() {
+        return coordinator.getRound();
+    }
+
+    public boolean finished() {
+        return getRemainingContestants() == 0;
+    }
+
+    @Override
+    public void close() {
+        for (InProcessChannel channel : channels) {
+            channel.close();
+        }
+    }
+}
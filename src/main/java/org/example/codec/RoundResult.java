@@ -0,0 +1,63 @@
+package org.example.codec;
+
+import java.util.Arrays;
+
+// A decoded ROUND_RESULT message. Instances are meant to be reused: decoding only
+// allocates when a message has more contestants than any before it.
+public final class RoundResult {
+    int round;
+    float target;
+    int penalty;
+    int rules;
+    int contestants;
+    long[] loserBits = new long[0];
+
+    void setContestantCount(int contestants) {
+        if (contestants < 0) {
+            throw new IllegalArgumentException("Negative number of contestants");
+        }
+        this.contestants = contestants;
+        final int words = (contestants + 63) >>> 6;
+        if (loserBits.length < words) {
+            loserBits = new long[words];
+        } else {
+            Arrays.fill(loserBits, 0, words, 0);
+        }
+    }
+
+    public int getRound() {
+        return round;
+    }
+
+    public float getTarget() {
+        return target;
+    }
+
+    public int getPenalty() {
+        return penalty;
+    }
+
+    // Bitmask of the RoundEngine.RULE_* constants
+    public int getRules() {
+        return rules;
+    }
+
+    public int getContestantCount() {
+        return contestants;
+    }
+
+    public boolean isLoser(int id) {
+        if (id < 0 || id >= contestants) {
+            throw new IndexOutOfBoundsException("No contestant " + id);
+        }
+        return (loserBits[id >>> 6] & 1L << id) != 0;
+    }
+
+    public int getLoserCount() {
+        int count = 0;
+        for (int word = 0; word < (contestants + 63) >>> 6; word++) {
+            count += Long.bitCount(loserBits[word]);
+        }
+        return count;
+    }
+}
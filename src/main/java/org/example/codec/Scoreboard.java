@@ -0,0 +1,35 @@
+package org.example.codec;
+
+// A decoded SCOREBOARD message. Instances are meant to be reused: decoding only
+// allocates when a message has more contestants than any before it.
+public final class Scoreboard {
+    int round;
+    int contestants;
+    int[] scores = new int[0];
+
+    void setContestantCount(int contestants) {
+        if (contestants < 0) {
+            throw new IllegalArgumentException("Negative number of contestants");
+        }
+        this.contestants = contestants;
+        if (scores.length < contestants) {
+            scores = new int[contestants];
+        }
+    }
+
+    // The round being played when the scoreboard was written
+    public int getRound() {
+        return round;
+    }
+
+    public int getContestantCount() {
+        return contestants;
+    }
+
+    public int getScore(int id) {
+        if (id < 0 || id >= contestants) {
+            throw new IndexOutOfBoundsException("No contestant " + id);
+        }
+        return scores[id];
+    }
+}
@@ -0,0 +1,255 @@
+package org.example.codec;
+
+import org.example.BeautyContest;
+import org.example.Leaderboard;
+import org.example.RoundHistory;
+
+import java.nio.ByteBuffer;
+
+// Compact binary messages exchanged with clients. Contestants are identified by their
+// contest id (see BeautyContest.getContestant()) written as an unsigned LEB128 varint, so
+// ids below 128 take one byte. Every message starts with its type:
+//   GUESSES      type, count (varint), count x (contestant id (varint), guess (u8))
+//   ROUND_RESULT type, round (varint), target (float bits), penalty (varint), rules (u8),
+//                contestant count (varint), loser bitset (one bit per contestant, LSB first)
+//   SCOREBOARD   type, round (varint), contestant count (varint), score bits (u8), scores
+// Scoreboard scores are written as score - Leaderboard.MIN_SCORE in 4 or 8 bits, low nibble
+// first, depending on the starting score of the contest's ruleset. Scores outside that range,
+// like the ones of contestants eliminated by a penalty larger than their score, switch the
+// message to score bits 0: one zigzag varint per score.
+// Messages are written to and read from ByteBuffers in place; decoding fills arrays and
+// objects owned by the caller, which can be reused for every message. Decoders check
+// counts read from the wire against the bytes left in the buffer before allocating, so a
+// malformed message cannot make them allocate more than its own size.
+public final class WireFormat {
+    public static final byte GUESSES = 1;
+    public static final byte ROUND_RESULT = 2;
+    public static final byte SCOREBOARD = 3;
+
+    public static final int MAX_VARINT_SIZE = 5;
+
+    private WireFormat() {
+    }
+
+    // Type of the message starting at the buffer's position, without consuming it
+    public static byte peekType(ByteBuffer buffer) {
+        return buffer.get(buffer.position());
+    }
+
+    public static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    public static int getVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 7 * MAX_VARINT_SIZE; shift += 7) {
+            final byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint is longer than " + MAX_VARINT_SIZE + " bytes");
+    }
+
+    public static int varintSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    // Upper bound of the size of a GUESSES message
+    public static int maxGuessesSize(int count) {
+        return 1 + MAX_VARINT_SIZE + count * (MAX_VARINT_SIZE + 1);
+    }
+
+    public static int roundResultSize(RoundHistory history, int round, int contestants) {
+        return 1 + varintSize(round) + 4 + varintSize(history.getPenalty(round)) + 1 + varintSize(contestants)
+                + (contestants + 7) / 8;
+    }
+
+    public static int scoreboardSize(BeautyContest contest) {
+        final int contestants = contest.getContestantCount();
+        final int header = 1 + varintSize(contest.getRound()) + varintSize(contestants) + 1;
+        switch (scoreBits(contest)) {
+            case 4:
+                return header + (contestants + 1) / 2;
+            case 8:
+                return header + contestants;
+            default:
+                int size = header;
+                for (int id = 0; id < contestants; id++) {
+                    size += varintSize(zigzag(contest.getScore(id)));
+                }
+                return size;
+        }
+    }
+
+    // Writes pairs fromPair (inclusive) to toPair (exclusive) of (contestant id, guess)
+    // pairs packed as in BeautyContest.submitGuesses()
+    public static void putGuesses(ByteBuffer buffer, int[] pairs, int fromPair, int toPair) {
+        buffer.put(GUESSES);
+        putVarint(buffer, toPair - fromPair);
+        for (int i = fromPair; i < toPair; i++) {
+            final int guess = pairs[2 * i + 1];
+            if (guess < 0 || guess > 0xFF) {
+                throw new IllegalArgumentException("Guess " + guess + " does not fit in a byte");
+            }
+            putVarint(buffer, pairs[2 * i]);
+            buffer.put((byte) guess);
+        }
+    }
+
+    // Reads a GUESSES message into pairs, packed as in BeautyContest.submitGuesses(), and
+    // returns the number of pairs read
+    public static int getGuesses(ByteBuffer buffer, int[] pairs) {
+        expect(buffer, GUESSES);
+        final int count = getVarint(buffer);
+        if (count < 0 || count > pairs.length / 2) {
+            throw new IllegalArgumentException("Message has " + count + " guesses, more than fit in the array");
+        }
+        for (int i = 0; i < count; i++) {
+            pairs[2 * i] = getVarint(buffer);
+            pairs[2 * i + 1] = buffer.get() & 0xFF;
+        }
+        return count;
+    }
+
+    // Writes the outcome of a round still held by the history of a contest with the given
+    // number of contestants
+    public static void putRoundResult(ByteBuffer buffer, RoundHistory history, int round, int contestants) {
+        buffer.put(ROUND_RESULT);
+        putVarint(buffer, round);
+        buffer.putFloat(history.getTarget(round));
+        putVarint(buffer, history.getPenalty(round));
+        buffer.put((byte) history.getRules(round));
+        putVarint(buffer, contestants);
+        final int bitset = buffer.position();
+        final int bytes = (contestants + 7) / 8;
+        for (int i = 0; i < bytes; i++) {
+            buffer.put((byte) 0);
+        }
+        final int losers = history.getLoserCount(round);
+        for (int i = 0; i < losers; i++) {
+            final int id = history.getLoser(round, i);
+            final int index = bitset + (id >>> 3);
+            buffer.put(index, (byte) (buffer.get(index) | 1 << (id & 7)));
+        }
+    }
+
+    public static void getRoundResult(ByteBuffer buffer, RoundResult into) {
+        expect(buffer, ROUND_RESULT);
+        into.round = getVarint(buffer);
+        into.target = buffer.getFloat();
+        into.penalty = getVarint(buffer);
+        into.rules = buffer.get() & 0xFF;
+        final int contestants = getVarint(buffer);
+        checkRemaining(buffer, contestants, (contestants + 7L) / 8);
+        into.setContestantCount(contestants);
+        final long[] loserBits = into.loserBits;
+        final int bytes = (into.contestants + 7) / 8;
+        for (int i = 0; i < bytes; i++) {
+            loserBits[i >>> 3] |= (long) (buffer.get() & 0xFF) << ((i & 7) << 3);
+        }
+    }
+
+    public static void putScoreboard(ByteBuffer buffer, BeautyContest contest) {
+        final int contestants = contest.getContestantCount();
+        final int bits = scoreBits(contest);
+        buffer.put(SCOREBOARD);
+        putVarint(buffer, contest.getRound());
+        putVarint(buffer, contestants);
+        buffer.put((byte) bits);
+        if (bits == 4) {
+            for (int id = 0; id < contestants; id += 2) {
+                int packed = contest.getScore(id) - Leaderboard.MIN_SCORE;
+                if (id + 1 < contestants) {
+                    packed |= contest.getScore(id + 1) - Leaderboard.MIN_SCORE << 4;
+                }
+                buffer.put((byte) packed);
+            }
+        } else if (bits == 8) {
+            for (int id = 0; id < contestants; id++) {
+                buffer.put((byte) (contest.getScore(id) - Leaderboard.MIN_SCORE));
+            }
+        } else {
+            for (int id = 0; id < contestants; id++) {
+                putVarint(buffer, zigzag(contest.getScore(id)));
+            }
+        }
+    }
+
+    // 4 or 8 if every score fits that many bits above Leaderboard.MIN_SCORE, sized from the
+    // starting score of the ruleset, and 0 for varints otherwise
+    private static int scoreBits(BeautyContest contest) {
+        final int range = contest.getRuleSet().getStartingScore() - Leaderboard.MIN_SCORE;
+        final int bits = range <= 0xF ? 4 : range <= 0xFF ? 8 : 0;
+        if (bits == 0) {
+            return 0;
+        }
+        final int max = Leaderboard.MIN_SCORE + (1 << bits) - 1;
+        for (int id = 0; id < contest.getContestantCount(); id++) {
+            final int score = contest.getScore(id);
+            if (score < Leaderboard.MIN_SCORE || score > max) {
+                return 0;
+            }
+        }
+        return bits;
+    }
+
+    private static int zigzag(int value) {
+        return value << 1 ^ value >> 31;
+    }
+
+    public static void getScoreboard(ByteBuffer buffer, Scoreboard into) {
+        expect(buffer, SCOREBOARD);
+        into.round = getVarint(buffer);
+        final int contestants = getVarint(buffer);
+        final int bits = buffer.get();
+        // Varints take at least a byte per score
+        checkRemaining(buffer, contestants, bits == 4 ? (contestants + 1L) / 2 : contestants);
+        into.setContestantCount(contestants);
+        final int[] scores = into.scores;
+        if (bits == 4) {
+            for (int id = 0; id < into.contestants; id += 2) {
+                final int packed = buffer.get();
+                scores[id] = (packed & 0xF) + Leaderboard.MIN_SCORE;
+                if (id + 1 < into.contestants) {
+                    scores[id + 1] = (packed >>> 4 & 0xF) + Leaderboard.MIN_SCORE;
+                }
+            }
+        } else if (bits == 8) {
+            for (int id = 0; id < into.contestants; id++) {
+                scores[id] = (buffer.get() & 0xFF) + Leaderboard.MIN_SCORE;
+            }
+        } else if (bits == 0) {
+            for (int id = 0; id < into.contestants; id++) {
+                final int zigzag = getVarint(buffer);
+                scores[id] = zigzag >>> 1 ^ -(zigzag & 1);
+            }
+        } else {
+            throw new IllegalArgumentException("Unsupported score width of " + bits + " bits");
+        }
+    }
+
+    private static void checkRemaining(ByteBuffer buffer, int contestants, long bytes) {
+        if (contestants < 0 || bytes > buffer.remaining()) {
+            throw new IllegalArgumentException("Message claims " + contestants + " contestants but only has "
+                    + buffer.remaining() + " bytes left");
+        }
+    }
+
+    private static void expect(ByteBuffer buffer, byte type) {
+        final byte actual = buffer.get();
+        if (actual != type) {
+            throw new IllegalArgumentException("Expected message type " + type + " but found " + actual);
+        }
+    }
+}
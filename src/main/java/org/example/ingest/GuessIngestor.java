@@ -0,0 +1,245 @@
+package org.example.ingest;
+
+import org.example.BeautyContest;
+import org.example.GuessRejection;
+
+import java.io.Closeable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Feeds a stream of guesses from any number of producer threads into one contest.
+// Guesses are queued as packed (contestant id, guess) pairs in a bounded ring; put() blocks
+// while the ring is full, which pushes back on producers that outpace the contest. A single
+// worker thread drains the ring in batches through BeautyContest.submitGuesses() and closes
+// the round as soon as every contestant still alive has guessed. Once started, the contest
+// must only be used through the ingestor.
+//
+// If the contest or the listener throws, the worker stops, drops the queued guesses and the
+// ingestor fails: waiting producers wake up, and put(), offer() and close() throw an
+// IllegalStateException caused by the failure.
+public final class GuessIngestor implements Closeable {
+    public interface Listener {
+        Listener NONE = new Listener() {
+            @Override
+            public void onRejected(int contestantId, int guess, byte code) {
+            }
+
+            @Override
+            public void onRoundClosed(BeautyContest contest, int round) {
+            }
+        };
+
+        // code is one of the GuessRejection constants
+        void onRejected(int contestantId, int guess, byte code);
+
+        void onRoundClosed(BeautyContest contest, int round);
+    }
+
+    private final BeautyContest contest;
+    private final Listener listener;
+
+    private final long[] ring;
+    private int head;
+    private int count;
+    private boolean closed;
+    private Throwable failure;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    // Only used by the worker
+    private final int[] pairs;
+    private final byte[] results;
+    private final Thread worker;
+
+    private final AtomicLongArray counts = new AtomicLongArray(GuessRejection.CODES);
+    private volatile int roundsClosed;
+
+    public GuessIngestor(BeautyContest contest, int capacity, int batchSize, Listener listener) {
+        if (capacity < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Capacity and batch size must be at least 1");
+        }
+        this.contest = contest;
+        this.listener = listener;
+        this.ring = new long[capacity];
+        this.pairs = new int[2 * batchSize];
+        this.results = new byte[batchSize];
+        this.worker = new Thread(this::drain, "guess-ingestor");
+        this.worker.setDaemon(true);
+    }
+
+    public void start() {
+        worker.start();
+    }
+
+    // Queues a guess, waiting while the ring is full
+    public void put(int contestantId, int guess) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (count == ring.length && !closed && failure == null) {
+                notFull.await();
+            }
+            enqueue(contestantId, guess);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Queues a guess unless the ring is full
+    public boolean offer(int contestantId, int guess) {
+        lock.lock();
+        try {
+            checkFailure();
+            if (count == ring.length) {
+                return false;
+            }
+            enqueue(contestantId, guess);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void enqueue(int contestantId, int guess) {
+        checkFailure();
+        if (closed) {
+            throw new IllegalStateException("Ingestor is closed");
+        }
+        ring[(head + count) % ring.length] = ((long) contestantId << 32) | (guess & 0xFFFFFFFFL);
+        count++;
+        notEmpty.signal();
+    }
+
+    // Number of guesses that ended with the given GuessRejection code
+    public long getCount(byte code) {
+        return counts.get(code);
+    }
+
+    public int getRoundsClosed() {
+        return roundsClosed;
+    }
+
+    // Called with the lock held
+    private void checkFailure() {
+        if (failure != null) {
+            throw new IllegalStateException("Ingestor failed", failure);
+        }
+    }
+
+    // Stops accepting guesses and waits up to a minute until the queued ones have been
+    // submitted; see close(long, TimeUnit)
+    @Override
+    public void close() {
+        close(1, TimeUnit.MINUTES);
+    }
+
+    // Stops accepting guesses and waits until the queued ones have been submitted. Throws if
+    // the worker failed, if the ingestor was never started while guesses were queued, or if
+    // the worker is still draining when the timeout expires; the last two report how many
+    // guesses were left undrained.
+    public void close(long timeout, TimeUnit unit) {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signal();
+            notFull.signalAll();
+            if (worker.getState() == Thread.State.NEW && count > 0) {
+                throw new IllegalStateException("Ingestor was never started, " + count
+                        + " guesses were not submitted");
+            }
+        } finally {
+            lock.unlock();
+        }
+        try {
+            worker.join(Math.max(1, unit.toMillis(timeout)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            checkFailure();
+            if (worker.isAlive()) {
+                throw new IllegalStateException("Ingestor is still draining, " + count
+                        + " guesses were not submitted yet");
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            int batch = 0;
+            lock.lock();
+            try {
+                while (count == 0 && !closed) {
+                    notEmpty.awaitUninterruptibly();
+                }
+                if (count == 0) {
+                    return;
+                }
+                while (batch < results.length && count > 0) {
+                    final long pair = ring[head];
+                    pairs[2 * batch] = (int) (pair >>> 32);
+                    pairs[2 * batch + 1] = (int) pair;
+                    head = (head + 1) % ring.length;
+                    count--;
+                    batch++;
+                }
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            try {
+                submit(batch);
+            } catch (RuntimeException | Error e) {
+                fail(e);
+                return;
+            }
+        }
+    }
+
+    private void fail(Throwable e) {
+        lock.lock();
+        try {
+            failure = e;
+            count = 0;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void submit(int batch) {
+        int from = 0;
+        while (from < batch) {
+            // Never submit more guesses than the round is missing, so the round can be closed
+            // as soon as the last contestant alive has guessed and the rest of the batch goes
+            // to the next round
+            final int missing = contest.getRemainingContestants() - contest.getGuessCount();
+            final int to = Math.min(batch, from + Math.max(1, missing));
+            contest.submitGuesses(pairs, from, to, results);
+            for (int i = from; i < to; i++) {
+                final byte result = results[i];
+                counts.lazySet(result, counts.get(result) + 1);
+                if (result != GuessRejection.ACCEPTED) {
+                    listener.onRejected(pairs[2 * i], pairs[2 * i + 1], result);
+                }
+            }
+            if (contest.getRemainingContestants() > 0
+                    && contest.getGuessCount() == contest.getRemainingContestants()) {
+                closeRound();
+            }
+            from = to;
+        }
+    }
+
+    private void closeRound() {
+        final int round = contest.getRound();
+        contest.evaluateRound();
+        roundsClosed++;
+        listener.onRoundClosed(contest, round);
+    }
+}
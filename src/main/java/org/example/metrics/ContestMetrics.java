@@ -0,0 +1,111 @@
+package org.example.metrics;
+
+import org.example.GuessRejection;
+import org.example.RoundEngine;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+// Counters and histograms for contest hot paths. Counters are striped LongAdders, so many
+// contests on many threads can share one instance without contending on a cache line.
+// Contests only record into metrics they were given, so leaving them out costs a null check.
+public final class ContestMetrics {
+    private final LongAdder[] guesses = new LongAdder[GuessRejection.CODES];
+    private final LongAdder rounds = new LongAdder();
+    private final LongAdder duplicateEliminations = new LongAdder();
+    private final LongAdder doublePenalties = new LongAdder();
+    private final LongAdder zeroVsHundred = new LongAdder();
+    private final Histogram evaluationNanos = new Histogram();
+    private final Histogram contestantsPerRound = new Histogram();
+    private volatile LongSupplier storageBytes;
+    private volatile IntSupplier storedContestants;
+
+    public ContestMetrics() {
+        for (int code = 0; code < guesses.length; code++) {
+            guesses[code] = new LongAdder();
+        }
+    }
+
+    // result is one of the GuessRejection codes, ACCEPTED included
+    public void recordGuess(byte result) {
+        guesses[result].increment();
+    }
+
+    public void recordGuesses(byte result, int count) {
+        guesses[result].add(count);
+    }
+
+    // rules is the RoundEngine.RULE_* bitmask of the evaluated round
+    public void recordRound(long evaluationNanos, int contestants, int rules) {
+        rounds.increment();
+        this.evaluationNanos.record(evaluationNanos);
+        contestantsPerRound.record(contestants);
+        if ((rules & RoundEngine.RULE_DUPLICATE_ELIMINATION) != 0) {
+            duplicateEliminations.increment();
+        }
+        if ((rules & RoundEngine.RULE_DOUBLE_PENALTY) != 0) {
+            doublePenalties.increment();
+        }
+        if ((rules & RoundEngine.RULE_ZERO_VS_HUNDRED) != 0) {
+            zeroVsHundred.increment();
+        }
+    }
+
+    // Reports the memory held by contestant storage as a gauge, e.g.
+    // setStorageGauge(engine::getMemoryUsage, engine::size) for an OffHeapRoundEngine
+    public void setStorageGauge(LongSupplier bytes, IntSupplier contestants) {
+        this.storedContestants = contestants;
+        this.storageBytes = bytes;
+    }
+
+    public boolean hasStorageGauge() {
+        return storageBytes != null;
+    }
+
+    public long getStorageBytes() {
+        LongSupplier bytes = storageBytes;
+        return bytes == null ? 0 : bytes.getAsLong();
+    }
+
+    // NaN if no storage gauge is set or it holds no contestants
+    public double getStorageBytesPerContestant() {
+        LongSupplier bytes = storageBytes;
+        IntSupplier contestants = storedContestants;
+        if (bytes == null || contestants == null) {
+            return Double.NaN;
+        }
+        final int count = contestants.getAsInt();
+        return count == 0 ? Double.NaN : (double) bytes.getAsLong() / count;
+    }
+
+    public long getGuesses(byte result) {
+        return guesses[result].sum();
+    }
+
+    public long getRounds() {
+        return rounds.sum();
+    }
+
+    // Number of rounds in which the given RoundEngine.RULE_* rule applied
+    public long getRuleHits(int rule) {
+        switch (rule) {
+            case RoundEngine.RULE_DUPLICATE_ELIMINATION:
+                return duplicateEliminations.sum();
+            case RoundEngine.RULE_DOUBLE_PENALTY:
+                return doublePenalties.sum();
+            case RoundEngine.RULE_ZERO_VS_HUNDRED:
+                return zeroVsHundred.sum();
+            default:
+                throw new IllegalArgumentException("Unknown rule " + rule);
+        }
+    }
+
+    public Histogram getEvaluationNanos() {
+        return evaluationNanos;
+    }
+
+    public Histogram getContestantsPerRound() {
+        return contestantsPerRound;
+    }
+}
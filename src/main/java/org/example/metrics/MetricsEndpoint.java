@@ -0,0 +1,43 @@
+package org.example.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+// Serves metrics over HTTP on the loopback interface at /metrics, for local scraping
+public final class MetricsEndpoint implements Closeable {
+    private final HttpServer server;
+
+    public MetricsEndpoint(int port, ContestMetrics metrics, MetricsExporter exporter) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        this.server.createContext("/metrics", exchange -> respond(exchange, metrics, exporter));
+        this.server.start();
+    }
+
+    // The bound port, useful when the endpoint was started on port 0
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private static void respond(HttpExchange exchange, ContestMetrics metrics, MetricsExporter exporter)
+            throws IOException {
+        final StringBuilder body = new StringBuilder();
+        exporter.export(metrics, body);
+        final byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", exporter.getContentType());
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,10 @@
+package org.example.metrics;
+
+import java.io.IOException;
+
+// Renders metrics in some exposition format
+public interface MetricsExporter {
+    String getContentType();
+
+    void export(ContestMetrics metrics, Appendable out) throws IOException;
+}
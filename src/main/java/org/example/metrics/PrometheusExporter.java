@@ -0,0 +1,68 @@
+package org.example.metrics;
+
+import org.example.GuessRejection;
+import org.example.RoundEngine;
+
+import java.io.IOException;
+
+// Prometheus text exposition format
+public final class PrometheusExporter implements MetricsExporter {
+    private static final String[] RESULTS = {
+            "accepted", "not_participating", "eliminated", "already_submitted", "out_of_bounds"};
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999, 1};
+
+    @Override
+    public String getContentType() {
+        return "text/plain; version=0.0.4; charset=utf-8";
+    }
+
+    @Override
+    public void export(ContestMetrics metrics, Appendable out) throws IOException {
+        out.append("# TYPE beauty_contest_guesses_total counter\n");
+        for (byte code = 0; code < GuessRejection.CODES; code++) {
+            sample(out, "beauty_contest_guesses_total", "result", RESULTS[code], metrics.getGuesses(code));
+        }
+        out.append("# TYPE beauty_contest_rounds_total counter\n");
+        sample(out, "beauty_contest_rounds_total", null, null, metrics.getRounds());
+        out.append("# TYPE beauty_contest_rule_hits_total counter\n");
+        sample(out, "beauty_contest_rule_hits_total", "rule", "duplicate_elimination",
+                metrics.getRuleHits(RoundEngine.RULE_DUPLICATE_ELIMINATION));
+        sample(out, "beauty_contest_rule_hits_total", "rule", "double_penalty",
+                metrics.getRuleHits(RoundEngine.RULE_DOUBLE_PENALTY));
+        sample(out, "beauty_contest_rule_hits_total", "rule", "zero_vs_hundred",
+                metrics.getRuleHits(RoundEngine.RULE_ZERO_VS_HUNDRED));
+        summary(out, "beauty_contest_evaluation_seconds", metrics.getEvaluationNanos(), 1e-9);
+        summary(out, "beauty_contest_contestants_per_round", metrics.getContestantsPerRound(), 1);
+        if (metrics.hasStorageGauge()) {
+            out.append("# TYPE beauty_contest_storage_bytes gauge\n");
+            sample(out, "beauty_contest_storage_bytes", null, null, metrics.getStorageBytes());
+            out.append("# TYPE beauty_contest_storage_bytes_per_contestant gauge\n");
+            sample(out, "beauty_contest_storage_bytes_per_contestant", null, null,
+                    metrics.getStorageBytesPerContestant());
+        }
+    }
+
+    private static void summary(Appendable out, String name, Histogram histogram, double scale) throws IOException {
+        out.append("# TYPE ").append(name).append(" summary\n");
+        for (double quantile : QUANTILES) {
+            sample(out, name, "quantile", format(quantile), histogram.getValueAtPercentile(quantile * 100) * scale);
+        }
+        sample(out, name + "_sum", null, null, histogram.getSum() * scale);
+        sample(out, name + "_count", null, null, histogram.getCount());
+    }
+
+    private static void sample(Appendable out, String name, String label, String value, double sample)
+            throws IOException {
+        out.append(name);
+        if (label != null) {
+            out.append('{').append(label).append("=\"").append(value).append("\"}");
+        }
+        out.append(' ').append(format(sample)).append('\n');
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) && Math.abs(value) < 1e15
+                ? Long.toString((long) value)
+                : Double.toString(value);
+    }
+}
@@ -0,0 +1,169 @@
+package org.example.persistence;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Outcome of an AuditVerifier run. Only the first mismatch of a game is reported, since
+// the game's state has diverged from the log after it, and at most a fixed number of
+// mismatches are kept; getMismatchedGames() counts all of them.
+public final class AuditReport {
+    public enum Kind {
+        // A contestant joining after the game started, or out of order
+        JOIN,
+        // A logged guess that the engine rejects, e.g. from an eliminated contestant
+        GUESS,
+        // A round evaluated out of order
+        ROUND,
+        TARGET,
+        PENALTY,
+        // A penalized contestant that did not lose, or a loser without a penalty record
+        LOSER
+    }
+
+    public static final class Mismatch {
+        private final long contestId;
+        private final int round;
+        private final Kind kind;
+        private final double expected;
+        private final double logged;
+
+        Mismatch(long contestId, int round, Kind kind, double expected, double logged) {
+            this.contestId = contestId;
+            this.round = round;
+            this.kind = kind;
+            this.expected = expected;
+            this.logged = logged;
+        }
+
+        public long getContestId() {
+            return contestId;
+        }
+
+        public int getRound() {
+            return round;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        // What the engine produced: the target, penalty, round or contestant id, or -1 if
+        // the engine has no counterpart to the logged record
+        public double getExpected() {
+            return expected;
+        }
+
+        // What the log holds, or -1 if the record the engine expected is missing
+        public double getLogged() {
+            return logged;
+        }
+
+        @Override
+        public String toString() {
+            return "contest " + contestId + " round " + round + " " + kind
+                    + " expected " + format(expected) + " logged " + format(logged);
+        }
+
+        private static String format(double value) {
+            return value == (long) value ? Long.toString((long) value) : Float.toString((float) value);
+        }
+    }
+
+    private final int maxMismatches;
+    private final List<Mismatch> mismatches = new ArrayList<>();
+    private long games;
+    private long rounds;
+    private long mismatchedGames;
+    private long skippedGames;
+    private long elapsedNanos;
+
+    AuditReport(int maxMismatches) {
+        this.maxMismatches = maxMismatches;
+    }
+
+    void recordGame(int rounds, Mismatch mismatch) {
+        games++;
+        this.rounds += rounds;
+        if (mismatch != null) {
+            mismatchedGames++;
+            if (mismatches.size() < maxMismatches) {
+                mismatches.add(mismatch);
+            }
+        }
+    }
+
+    void recordSkipped() {
+        skippedGames++;
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    AuditReport merge(AuditReport other) {
+        games += other.games;
+        rounds += other.rounds;
+        mismatchedGames += other.mismatchedGames;
+        skippedGames += other.skippedGames;
+        for (Mismatch mismatch : other.mismatches) {
+            if (mismatches.size() == maxMismatches) {
+                break;
+            }
+            mismatches.add(mismatch);
+        }
+        return this;
+    }
+
+    // Games that were re-evaluated, whether they matched or not
+    public long getGames() {
+        return games;
+    }
+
+    public long getRounds() {
+        return rounds;
+    }
+
+    public long getMismatchedGames() {
+        return mismatchedGames;
+    }
+
+    // Games whose joins are not in the audited segments, e.g. because they started before
+    // a snapshot, and which therefore cannot be re-evaluated
+    public long getSkippedGames() {
+        return skippedGames;
+    }
+
+    // The first mismatch of each mismatched game in log order, up to the configured maximum
+    public List<Mismatch> getMismatches() {
+        return Collections.unmodifiableList(mismatches);
+    }
+
+    public boolean isClean() {
+        return mismatchedGames == 0;
+    }
+
+    // Time taken to index and re-evaluate every game
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getGamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder report = new StringBuilder();
+        report.append(games).append(" games, ").append(rounds).append(" rounds, ")
+                .append(mismatchedGames).append(" mismatched, ").append(skippedGames).append(" skipped, ")
+                .append(String.format("%.0f", getGamesPerSecond())).append(" games/s\n");
+        for (Mismatch mismatch : mismatches) {
+            report.append(mismatch).append('\n');
+        }
+        if (mismatchedGames > mismatches.size()) {
+            report.append("... ").append(mismatchedGames - mismatches.size()).append(" more\n");
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,314 @@
+package org.example.persistence;
+
+import org.example.BeautyContest;
+import org.example.Contestant;
+import org.example.ContestantRegistry;
+import org.example.GuessRejection;
+import org.example.RoundHistory;
+import org.example.TargetMode;
+import org.example.rules.RuleSet;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Checks offline that every round recorded in the segments of a log directory was scored
+// as the engine scores it. The segments are memory-mapped and indexed in one sequential
+// pass that only notes, per game, where its records are; the games are then re-evaluated
+// on a fork-join pool, each by a fresh contest fed its guesses from the mapped files, and
+// every ROUND_EVALUATED record and its PENALTY records are compared with the round history.
+//
+// Games are split by halving ranges down to a fixed batch size, and batches are merged in
+// log order, so the report does not depend on the pool's parallelism. The index takes 8
+// bytes per record, which keeps archives of millions of games within a modest heap.
+public final class AuditVerifier {
+    public static final int DEFAULT_MAX_MISMATCHES = 1000;
+    static final int GAMES_PER_BATCH = 256;
+
+    private final RuleSetLookup ruleSets;
+    private final int maxMismatches;
+
+    public AuditVerifier() {
+        this(DEFAULT_MAX_MISMATCHES);
+    }
+
+    // Rulesets other than RuleSet.DEFAULT that the logged contests were played with must be
+    // given, see ContestRecovery
+    public AuditVerifier(int maxMismatches, RuleSet... ruleSets) {
+        if (maxMismatches < 0) {
+            throw new IllegalArgumentException("Maximum number of mismatches must not be negative");
+        }
+        this.ruleSets = new RuleSetLookup(ruleSets);
+        this.maxMismatches = maxMismatches;
+    }
+
+    public AuditReport verify(Path directory) throws IOException {
+        return verify(directory, ForkJoinPool.commonPool());
+    }
+
+    public AuditReport verify(Path directory, ForkJoinPool pool) throws IOException {
+        final long start = System.nanoTime();
+        final int[] indexes = LogFiles.segments(directory);
+        final ByteBuffer[] segments = new ByteBuffer[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            segments[i] = map(LogFiles.segment(directory, indexes[i]));
+        }
+        final GameIndex index = new GameIndex();
+        for (int i = 0; i < segments.length; i++) {
+            index.add(i, segments[i]);
+        }
+        final Game[] games = index.games.values().toArray(new Game[0]);
+        Arrays.sort(games, (a, b) -> Long.compare(a.records[0], b.records[0]));
+
+        final AuditReport report = pool.invoke(new Audits(segments, games, 0, games.length));
+        report.setElapsedNanos(System.nanoTime() - start);
+        return report;
+    }
+
+    private static ByteBuffer map(Path segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            // The mapping stays valid once the channel is closed
+            return channel.size() == 0
+                    ? ByteBuffer.allocate(0)
+                    : channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    // Offsets of the records of one game, packed as segment << 32 | position in log order
+    private static final class Game {
+        final long contestId;
+        long[] records = new long[16];
+        int count;
+
+        Game(long contestId) {
+            this.contestId = contestId;
+        }
+
+        void add(long record) {
+            if (count == records.length) {
+                records = Arrays.copyOf(records, count * 2);
+            }
+            records[count++] = record;
+        }
+    }
+
+    private static final class GameIndex {
+        final Map<Long, Game> games = new HashMap<>();
+        // Consecutive records usually belong to the same game, so skip the map lookup
+        private Game current;
+
+        void add(int segment, ByteBuffer buffer) {
+            for (int position = 0, size; (size = EventRecords.sizeAt(buffer, position)) >= 0; position += size) {
+                final long contestId = EventRecords.contestIdAt(buffer, position);
+                if (current == null || current.contestId != contestId) {
+                    current = games.computeIfAbsent(contestId, Game::new);
+                }
+                current.add((long) segment << 32 | position);
+            }
+        }
+    }
+
+    private final class Audits extends RecursiveTask<AuditReport> {
+        private final ByteBuffer[] segments;
+        private final Game[] games;
+        private final int from;
+        private final int to;
+
+        Audits(ByteBuffer[] segments, Game[] games, int from, int to) {
+            this.segments = segments;
+            this.games = games;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected AuditReport compute() {
+            if (to - from <= GAMES_PER_BATCH) {
+                final AuditReport report = new AuditReport(maxMismatches);
+                final GameAudit audit = new GameAudit();
+                for (int i = from; i < to; i++) {
+                    audit.verify(segments, games[i], report);
+                }
+                return report;
+            }
+            final int middle = (from + to) >>> 1;
+            final Audits right = new Audits(segments, games, middle, to);
+            right.fork();
+            final AuditReport left = new Audits(segments, games, from, middle).compute();
+            return left.merge(right.join());
+        }
+    }
+
+    // Re-evaluates one game at a time; every batch has its own. Names are interned in a
+    // registry of the batch, which is dropped with it instead of growing the global one.
+    private final class GameAudit implements EventHandler {
+        private final ContestantRegistry names = new ContestantRegistry();
+        private final List<Contestant> joined = new ArrayList<>();
+        private RuleSet ruleSet;
+        private TargetMode targetMode;
+        private final int[] pair = new int[2];
+        private final byte[] result = new byte[1];
+        private long contestId;
+        private BeautyContest contest;
+        private AuditReport.Mismatch mismatch;
+        private int rounds;
+        // Losers of the latest evaluated round that have not been matched to a PENALTY record
+        private int evaluatedRound;
+        private int losersMatched;
+        private boolean skipped;
+
+        void verify(ByteBuffer[] segments, Game game, AuditReport report) {
+            contestId = game.contestId;
+            joined.clear();
+            ruleSet = RuleSet.DEFAULT;
+            targetMode = TargetMode.FLOAT;
+            contest = null;
+            mismatch = null;
+            rounds = 0;
+            evaluatedRound = 0;
+            losersMatched = 0;
+            skipped = false;
+            for (int i = 0; i < game.count && mismatch == null && !skipped; i++) {
+                final long record = game.records[i];
+                EventRecords.readAt(segments[(int) (record >>> 32)], (int) record, this);
+            }
+            if (mismatch == null && !skipped) {
+                checkLosersComplete();
+            }
+            if (skipped) {
+                report.recordSkipped();
+            } else {
+                report.recordGame(rounds, mismatch);
+            }
+        }
+
+        @Override
+        public void onRules(long contestId, TargetMode targetMode, String ruleSetName, int multiplierNumerator,
+                            int multiplierDenominator, int startingScore, int penalty) {
+            this.targetMode = targetMode;
+            ruleSet = ruleSets.find(contestId, ruleSetName, multiplierNumerator, multiplierDenominator, startingScore, penalty);
+        }
+
+        @Override
+        public void onTargetMode(long contestId, TargetMode targetMode) {
+            if (start()) {
+                contest.setTargetMode(targetMode);
+            }
+        }
+
+        @Override
+        public void onJoin(long contestId, int contestantId, String name) {
+            if (contest != null || contestantId != joined.size()) {
+                final int round = contest == null ? 0 : contest.getRound();
+                mismatch(round, AuditReport.Kind.JOIN, contest == null ? joined.size() : -1, contestantId);
+                return;
+            }
+            joined.add(new Contestant(names, name));
+        }
+
+        @Override
+        public void onGuess(long contestId, int contestantId, int guess) {
+            if (!start()) {
+                return;
+            }
+            pair[0] = contestantId;
+            pair[1] = guess;
+            contest.submitGuesses(pair, 0, 1, result);
+            if (result[0] != GuessRejection.ACCEPTED) {
+                mismatch(contest.getRound(), AuditReport.Kind.GUESS, -1, contestantId);
+            }
+        }
+
+        @Override
+        public void onRoundEvaluated(long contestId, int round, float target, int penalty) {
+            if (!start() || !checkLosersComplete()) {
+                return;
+            }
+            final int expectedRound = contest.getRound();
+            if (round != expectedRound) {
+                mismatch(expectedRound, AuditReport.Kind.ROUND, expectedRound, round);
+                return;
+            }
+            contest.evaluateRound();
+            rounds++;
+            evaluatedRound = round;
+            losersMatched = 0;
+            final RoundHistory history = contest.getRoundHistory();
+            final float expectedTarget = history.getTarget(round);
+            if (Float.floatToIntBits(expectedTarget) != Float.floatToIntBits(target)) {
+                mismatch(round, AuditReport.Kind.TARGET, expectedTarget, target);
+            } else if (history.getPenalty(round) != penalty) {
+                mismatch(round, AuditReport.Kind.PENALTY, history.getPenalty(round), penalty);
+            }
+        }
+
+        @Override
+        public void onPenalty(long contestId, int contestantId, int penalty) {
+            if (!start()) {
+                return;
+            }
+            if (evaluatedRound == 0) {
+                mismatch(contest.getRound(), AuditReport.Kind.LOSER, -1, contestantId);
+                return;
+            }
+            final RoundHistory history = contest.getRoundHistory();
+            if (losersMatched == history.getLoserCount(evaluatedRound)) {
+                mismatch(evaluatedRound, AuditReport.Kind.LOSER, -1, contestantId);
+                return;
+            }
+            final int loser = history.getLoser(evaluatedRound, losersMatched++);
+            if (loser != contestantId) {
+                mismatch(evaluatedRound, AuditReport.Kind.LOSER, loser, contestantId);
+            } else if (history.getPenalty(evaluatedRound) != penalty) {
+                mismatch(evaluatedRound, AuditReport.Kind.PENALTY, history.getPenalty(evaluatedRound), penalty);
+            }
+        }
+
+        @Override
+        public void onReset(long contestId) {
+            if (start() && checkLosersComplete()) {
+                contest.reset();
+                evaluatedRound = 0;
+            }
+        }
+
+        // Creates the contest once its joins are read; false if the game cannot be audited
+        private boolean start() {
+            if (contest == null) {
+                if (joined.isEmpty()) {
+                    skipped = true;
+                    return false;
+                }
+                contest = new BeautyContest(ruleSet, joined.toArray(new Contestant[0]));
+                contest.setTargetMode(targetMode);
+            }
+            return true;
+        }
+
+        // Every loser of the latest round must have had a PENALTY record
+        private boolean checkLosersComplete() {
+            if (evaluatedRound == 0) {
+                return true;
+            }
+            final RoundHistory history = contest.getRoundHistory();
+            if (losersMatched < history.getLoserCount(evaluatedRound)) {
+                mismatch(evaluatedRound, AuditReport.Kind.LOSER, history.getLoser(evaluatedRound, losersMatched), -1);
+                return false;
+            }
+            return true;
+        }
+
+        private void mismatch(int round, AuditReport.Kind kind, double expected, double logged) {
+            mismatch = new AuditReport.Mismatch(contestId, round, kind, expected, logged);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package org.example.persistence;
+
+import org.example.BeautyContest;
+import org.example.Contestant;
+import org.example.TargetMode;
+import org.example.rules.RuleSet;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+// Rebuilds contests from a log directory: the latest snapshot is loaded and the segments
+// written after it are replayed from memory-mapped files. Guesses and round evaluations
+// are replayed through the contests themselves, so they end up in exactly the state the
+// engine produced. Penalty records are derivable from the rounds and are skipped.
+//
+// The log only holds the name and parameters of each contest's RuleSet, so recovery must be
+// given every ruleset other than RuleSet.DEFAULT that the logged contests were played with;
+// they are looked up by name.
+public final class ContestRecovery implements EventHandler {
+    private final Map<Long, BeautyContest> contests = new LinkedHashMap<>();
+    // Contestants of contests whose joins are still being read
+    private final Map<Long, List<Contestant>> joining = new HashMap<>();
+    private final Map<Long, RuleSet> joiningRuleSets = new HashMap<>();
+    private final Map<Long, TargetMode> joiningTargetModes = new HashMap<>();
+    private final RuleSetLookup ruleSets;
+    private long eventsReplayed;
+    // Consecutive records usually belong to the same contest, so skip the map lookup
+    private long currentId;
+    private BeautyContest current;
+
+    private ContestRecovery(RuleSetLookup ruleSets) {
+        this.ruleSets = ruleSets;
+    }
+
+    public static ContestRecovery recover(Path directory, RuleSet... ruleSets) throws IOException {
+        final ContestRecovery recovery = new ContestRecovery(new RuleSetLookup(ruleSets));
+        int firstSegment = 1;
+        final int[] snapshots = LogFiles.snapshots(directory);
+        if (snapshots.length > 0) {
+            firstSegment = SnapshotFile.read(LogFiles.snapshot(directory, snapshots[snapshots.length - 1]),
+                    recovery.contests, recovery.ruleSets);
+        }
+        for (int segment : LogFiles.segments(directory)) {
+            if (segment >= firstSegment) {
+                recovery.eventsReplayed += replay(LogFiles.segment(directory, segment), recovery);
+            }
+        }
+        recovery.finishJoins();
+        return recovery;
+    }
+
+    // Feeds every record of a segment file to the handler and returns how many there were
+    public static long replay(Path segment, EventHandler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            if (channel.size() == 0) {
+                return 0;
+            }
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return EventRecords.read(buffer, handler);
+        }
+    }
+
+    public Map<Long, BeautyContest> getContests() {
+        return Collections.unmodifiableMap(contests);
+    }
+
+    public long getEventsReplayed() {
+        return eventsReplayed;
+    }
+
+    @Override
+    public void onRules(long contestId, TargetMode targetMode, String ruleSetName, int multiplierNumerator,
+                        int multiplierDenominator, int startingScore, int penalty) {
+        if (contests.containsKey(contestId) || joining.containsKey(contestId)) {
+            throw new IllegalStateException("Rules of contest " + contestId + " changed after it started");
+        }
+        joiningRuleSets.put(contestId,
+                ruleSets.find(contestId, ruleSetName, multiplierNumerator, multiplierDenominator, startingScore,
+                        penalty));
+        joiningTargetModes.put(contestId, targetMode);
+    }
+
+    @Override
+    public void onTargetMode(long contestId, TargetMode targetMode) {
+        contest(contestId).setTargetMode(targetMode);
+    }
+
+    @Override
+    public void onJoin(long contestId, int contestantId, String name) {
+        if (contests.containsKey(contestId)) {
+            throw new IllegalStateException("Contestant joined contest " + contestId + " after it started");
+        }
+        final List<Contestant> contestants = joining.computeIfAbsent(contestId, id -> new ArrayList<>());
+        if (contestantId != contestants.size()) {
+            throw new IllegalStateException("Contest " + contestId + " is missing contestant " + contestants.size());
+        }
+        contestants.add(new Contestant(name));
+    }
+
+    @Override
+    public void onGuess(long contestId, int contestantId, int guess) {
+        final BeautyContest contest = contest(contestId);
+        contest.submitGuess(contest.getContestant(contestantId), guess);
+    }
+
+    @Override
+    public void onRoundEvaluated(long contestId, int round, float target, int penalty) {
+        final BeautyContest contest = contest(contestId);
+        if (contest.getRound() != round) {
+            throw new IllegalStateException("Contest " + contestId + " is in round " + contest.getRound()
+                    + " but the log evaluates round " + round);
+        }
+        contest.evaluateRound();
+    }
+
+    @Override
+    public void onPenalty(long contestId, int contestantId, int penalty) {
+    }
+
+    @Override
+    public void onReset(long contestId) {
+        contest(contestId).reset();
+    }
+
+    private BeautyContest contest(long contestId) {
+        if (current != null && currentId == contestId) {
+            return current;
+        }
+        BeautyContest contest = contests.get(contestId);
+        if (contest == null) {
+            contest = start(contestId);
+        }
+        currentId = contestId;
+        current = contest;
+        return contest;
+    }
+
+    private BeautyContest start(long contestId) {
+        final List<Contestant> contestants = joining.remove(contestId);
+        if (contestants == null) {
+            throw new IllegalStateException("Contest " + contestId + " has no contestants");
+        }
+        final RuleSet ruleSet = joiningRuleSets.remove(contestId);
+        final BeautyContest contest = new BeautyContest(ruleSet == null ? RuleSet.DEFAULT : ruleSet,
+                contestants.toArray(new Contestant[0]));
+        final TargetMode targetMode = joiningTargetModes.remove(contestId);
+        if (targetMode != null) {
+            contest.setTargetMode(targetMode);
+        }
+        contests.put(contestId, contest);
+        return contest;
+    }
+
+    // Contests that have joins but no other events yet
+    private void finishJoins() {
+        for (Long contestId : new ArrayList<>(joining.keySet())) {
+            start(contestId);
+        }
+    }
+}
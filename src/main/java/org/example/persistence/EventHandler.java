@@ -0,0 +1,23 @@
+package org.example.persistence;
+
+import org.example.TargetMode;
+
+// Receives the records of an event log in the order they were written
+public interface EventHandler {
+    // The target mode, and the name and parameters of the RuleSet a contest is played with
+    void onRules(long contestId, TargetMode targetMode, String ruleSetName, int multiplierNumerator,
+                 int multiplierDenominator, int startingScore, int penalty);
+
+    // The target mode changed after the contest was attached
+    void onTargetMode(long contestId, TargetMode targetMode);
+
+    void onJoin(long contestId, int contestantId, String name);
+
+    void onGuess(long contestId, int contestantId, int guess);
+
+    void onRoundEvaluated(long contestId, int round, float target, int penalty);
+
+    void onPenalty(long contestId, int contestantId, int penalty);
+
+    void onReset(long contestId);
+}
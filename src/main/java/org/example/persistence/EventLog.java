@@ -0,0 +1,269 @@
+package org.example.persistence;
+
+import org.example.BeautyContest;
+import org.example.ContestListener;
+import org.example.RoundHistory;
+import org.example.TargetMode;
+import org.example.rules.RuleSet;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Append-only log of everything that happens in the attached contests. Records are
+// batched in a direct buffer and written to the current segment file when it fills up;
+// every flushesPerSync writes the segment is also forced to disk, so durability is traded
+// against throughput by choosing the buffer size and sync interval.
+//
+// Opening a log recovers its contests, and snapshots bound recovery time: a snapshot
+// captures every contest, starts a new segment and deletes the files it supersedes.
+// Snapshots must be taken while the contests are idle, e.g. from the game loop between
+// rounds, because a contest that changes during a snapshot could be logged twice.
+public final class EventLog implements Closeable {
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 17;
+    public static final int DEFAULT_FLUSHES_PER_SYNC = 1;
+    public static final long DEFAULT_EVENTS_PER_SNAPSHOT = 1 << 20;
+    // Segments are replayed through a single memory mapping, which is limited to 2 GiB
+    static final long MAX_SEGMENT_SIZE = 1L << 30;
+
+    private final Path directory;
+    private final int flushesPerSync;
+    private final long eventsPerSnapshot;
+    private final ByteBuffer buffer;
+    private final Map<Long, BeautyContest> contests = new LinkedHashMap<>();
+    private FileChannel segment;
+    private int segmentIndex;
+    private long flushes;
+    private long eventsSinceSnapshot;
+
+    private EventLog(Path directory, int bufferSize, int flushesPerSync, long eventsPerSnapshot) {
+        if (bufferSize < EventRecords.JOIN_SIZE + EventRecords.MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("Buffer must be able to hold any record");
+        }
+        this.directory = directory;
+        this.flushesPerSync = flushesPerSync;
+        this.eventsPerSnapshot = eventsPerSnapshot;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    // Rulesets other than RuleSet.DEFAULT that logged contests were played with must be given,
+    // see ContestRecovery
+    public static EventLog open(Path directory, RuleSet... ruleSets) throws IOException {
+        return open(directory, DEFAULT_BUFFER_SIZE, DEFAULT_FLUSHES_PER_SYNC, DEFAULT_EVENTS_PER_SNAPSHOT, ruleSets);
+    }
+
+    // flushesPerSync of 0 never forces writes to disk and leaves that to the operating system
+    public static EventLog open(Path directory, int bufferSize, int flushesPerSync, long eventsPerSnapshot,
+                                RuleSet... ruleSets) throws IOException {
+        Files.createDirectories(directory);
+        final EventLog log = new EventLog(directory, bufferSize, flushesPerSync, eventsPerSnapshot);
+        final ContestRecovery recovery = ContestRecovery.recover(directory, ruleSets);
+        for (Map.Entry<Long, BeautyContest> entry : recovery.getContests().entrySet()) {
+            log.contests.put(entry.getKey(), entry.getValue());
+            entry.getValue().setListener(log.new Recorder(entry.getKey()));
+        }
+        final int[] segments = LogFiles.segments(directory);
+        final int[] snapshots = LogFiles.snapshots(directory);
+        log.segmentIndex = Math.max(segments.length == 0 ? 0 : segments[segments.length - 1],
+                snapshots.length == 0 ? 0 : snapshots[snapshots.length - 1]);
+        // Start from a snapshot of the recovered state, so the next recovery does not replay this one
+        log.snapshot();
+        return log;
+    }
+
+    public synchronized Map<Long, BeautyContest> getContests() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(contests));
+    }
+
+    // Starts logging a new contest under the given id. The log only records what happens from
+    // here on, so the contest must not have been played yet.
+    public synchronized void attach(long contestId, BeautyContest contest) throws IOException {
+        if (contests.containsKey(contestId)) {
+            throw new IllegalArgumentException("Contest " + contestId + " is already being logged");
+        }
+        checkFresh(contestId, contest);
+        final RuleSet ruleSet = contest.getRuleSet();
+        if (ruleSet.getName() == null) {
+            throw new IllegalArgumentException("Contest " + contestId + " is played with an unnamed ruleset");
+        }
+        final byte[] ruleSetName = ruleSet.getName().getBytes(StandardCharsets.UTF_8);
+        if (ruleSetName.length > EventRecords.MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("Ruleset name is too long to be logged");
+        }
+        reserve(EventRecords.RULES_SIZE + ruleSetName.length);
+        EventRecords.putRules(buffer, contestId, contest.getTargetMode(), ruleSet, ruleSetName);
+        for (int id = 0; id < contest.getContestantCount(); id++) {
+            final byte[] name = contest.getContestant(id).getName().getBytes(StandardCharsets.UTF_8);
+            if (name.length > EventRecords.MAX_NAME_LENGTH) {
+                throw new IllegalArgumentException("Contestant name is too long to be logged");
+            }
+            reserve(EventRecords.JOIN_SIZE + name.length);
+            EventRecords.putJoin(buffer, contestId, id, name);
+        }
+        contests.put(contestId, contest);
+        contest.setListener(new Recorder(contestId));
+    }
+
+    private static void checkFresh(long contestId, BeautyContest contest) {
+        boolean fresh = contest.getRound() == 1 && contest.getGuessCount() == 0;
+        final int startingScore = contest.getRuleSet().getStartingScore();
+        for (int id = 0; fresh && id < contest.getContestantCount(); id++) {
+            fresh = contest.getScore(id) == startingScore;
+        }
+        if (!fresh) {
+            throw new IllegalArgumentException("Contest " + contestId + " has already been played and cannot be logged");
+        }
+    }
+
+    // Writes buffered records and forces them to disk
+    public synchronized void sync() throws IOException {
+        flush();
+        segment.force(false);
+    }
+
+    // Takes a snapshot once enough events were logged since the previous one
+    public synchronized boolean snapshotIfDue() throws IOException {
+        if (eventsSinceSnapshot < eventsPerSnapshot) {
+            return false;
+        }
+        snapshot();
+        return true;
+    }
+
+    public synchronized void snapshot() throws IOException {
+        if (segment != null) {
+            sync();
+            segment.close();
+        }
+        final int next = segmentIndex + 1;
+        SnapshotFile.write(LogFiles.snapshot(directory, next), next, contests);
+        openSegment(next);
+        for (int index : LogFiles.segments(directory)) {
+            if (index < next) {
+                Files.deleteIfExists(LogFiles.segment(directory, index));
+            }
+        }
+        for (int index : LogFiles.snapshots(directory)) {
+            if (index < next) {
+                Files.deleteIfExists(LogFiles.snapshot(directory, index));
+            }
+        }
+        eventsSinceSnapshot = 0;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (BeautyContest contest : contests.values()) {
+            contest.setListener(null);
+        }
+        sync();
+        segment.close();
+    }
+
+    private void openSegment(int index) throws IOException {
+        segment = FileChannel.open(LogFiles.segment(directory, index),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segmentIndex = index;
+    }
+
+    private void reserve(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+        eventsSinceSnapshot++;
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            segment.write(buffer);
+        }
+        buffer.clear();
+        if (flushesPerSync > 0 && ++flushes % flushesPerSync == 0) {
+            segment.force(false);
+        }
+        if (segment.position() >= MAX_SEGMENT_SIZE) {
+            segment.force(false);
+            segment.close();
+            openSegment(segmentIndex + 1);
+        }
+    }
+
+    private synchronized void record(long contestId, int id, int guess) {
+        try {
+            reserve(EventRecords.GUESS_SIZE);
+            EventRecords.putGuess(buffer, contestId, id, guess);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private synchronized void record(long contestId, RoundHistory history, int round) {
+        try {
+            reserve(EventRecords.ROUND_EVALUATED_SIZE);
+            final int penalty = history.getPenalty(round);
+            EventRecords.putRoundEvaluated(buffer, contestId, round, history.getTarget(round), penalty);
+            for (int i = 0; i < history.getLoserCount(round); i++) {
+                reserve(EventRecords.PENALTY_SIZE);
+                EventRecords.putPenalty(buffer, contestId, history.getLoser(round, i), penalty);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private synchronized void recordTargetMode(long contestId, TargetMode targetMode) {
+        try {
+            reserve(EventRecords.TARGET_MODE_SIZE);
+            EventRecords.putTargetMode(buffer, contestId, targetMode);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private synchronized void recordReset(long contestId) {
+        try {
+            reserve(EventRecords.RESET_SIZE);
+            EventRecords.putReset(buffer, contestId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private final class Recorder implements ContestListener {
+        private final long contestId;
+
+        Recorder(long contestId) {
+            this.contestId = contestId;
+        }
+
+        @Override
+        public void onGuess(BeautyContest contest, int id, int guess) {
+            record(contestId, id, guess);
+        }
+
+        @Override
+        public void onRoundEvaluated(BeautyContest contest, int round) {
+            record(contestId, contest.getRoundHistory(), round);
+        }
+
+        @Override
+        public void onTargetModeChanged(BeautyContest contest) {
+            recordTargetMode(contestId, contest.getTargetMode());
+        }
+
+        @Override
+        public void onReset(BeautyContest contest) {
+            recordReset(contestId);
+        }
+    }
+}
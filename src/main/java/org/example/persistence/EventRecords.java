@@ -0,0 +1,180 @@
+package org.example.persistence;
+
+import org.example.TargetMode;
+import org.example.rules.RuleSet;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Binary layout of the event log. Every record starts with its type and the contest id:
+//   RULES           type, contestId, target mode (u8), multiplier numerator,
+//                   multiplier denominator, starting score, penalty, ruleset name length (u16),
+//                   UTF-8 ruleset name
+//   JOIN            type, contestId, contestantId, name length (u16), UTF-8 name
+//   GUESS           type, contestId, contestantId, guess (u8)
+//   ROUND_EVALUATED type, contestId, round, target (float bits), penalty
+//   PENALTY         type, contestId, contestantId, penalty
+//   RESET           type, contestId
+//   TARGET_MODE     type, contestId, target mode (u8)
+// A contest's RULES record precedes its joins. Target modes are stored as
+// TargetMode.ordinal(). Fields without a size are 32-bit ints.
+final class EventRecords {
+    static final byte JOIN = 1;
+    static final byte GUESS = 2;
+    static final byte ROUND_EVALUATED = 3;
+    static final byte PENALTY = 4;
+    static final byte RESET = 5;
+    static final byte RULES = 6;
+    static final byte TARGET_MODE = 7;
+
+    private static final int HEADER_SIZE = 1 + 8;
+    static final int JOIN_SIZE = HEADER_SIZE + 4 + 2;
+    static final int GUESS_SIZE = HEADER_SIZE + 4 + 1;
+    static final int ROUND_EVALUATED_SIZE = HEADER_SIZE + 4 + 4 + 4;
+    static final int PENALTY_SIZE = HEADER_SIZE + 4 + 4;
+    static final int RESET_SIZE = HEADER_SIZE;
+    // Without the ruleset name
+    static final int RULES_SIZE = HEADER_SIZE + 1 + 4 * 4 + 2;
+    static final int TARGET_MODE_SIZE = HEADER_SIZE + 1;
+    private static final TargetMode[] TARGET_MODES = TargetMode.values();
+    static final int MAX_NAME_LENGTH = 0xFFFF;
+
+    private EventRecords() {
+    }
+
+    static void putRules(ByteBuffer buffer, long contestId, TargetMode targetMode, RuleSet ruleSet, byte[] name) {
+        buffer.put(RULES).putLong(contestId).put((byte) targetMode.ordinal())
+                .putInt(ruleSet.getMultiplierNumerator()).putInt(ruleSet.getMultiplierDenominator())
+                .putInt(ruleSet.getStartingScore()).putInt(ruleSet.getPenalty())
+                .putShort((short) name.length).put(name);
+    }
+
+    static void putJoin(ByteBuffer buffer, long contestId, int contestantId, byte[] name) {
+        buffer.put(JOIN).putLong(contestId).putInt(contestantId).putShort((short) name.length).put(name);
+    }
+
+    static void putGuess(ByteBuffer buffer, long contestId, int contestantId, int guess) {
+        buffer.put(GUESS).putLong(contestId).putInt(contestantId).put((byte) guess);
+    }
+
+    static void putRoundEvaluated(ByteBuffer buffer, long contestId, int round, float target, int penalty) {
+        buffer.put(ROUND_EVALUATED).putLong(contestId).putInt(round).putFloat(target).putInt(penalty);
+    }
+
+    static void putPenalty(ByteBuffer buffer, long contestId, int contestantId, int penalty) {
+        buffer.put(PENALTY).putLong(contestId).putInt(contestantId).putInt(penalty);
+    }
+
+    static void putTargetMode(ByteBuffer buffer, long contestId, TargetMode targetMode) {
+        buffer.put(TARGET_MODE).putLong(contestId).put((byte) targetMode.ordinal());
+    }
+
+    static TargetMode targetMode(int ordinal) {
+        if (ordinal >= TARGET_MODES.length) {
+            throw new IllegalStateException("Unknown target mode " + ordinal);
+        }
+        return TARGET_MODES[ordinal];
+    }
+
+    static void putReset(ByteBuffer buffer, long contestId) {
+        buffer.put(RESET).putLong(contestId);
+    }
+
+    // Reads records until the buffer is exhausted and returns how many were read. A record
+    // cut short at the end, as left behind by a crash during a write, is ignored.
+    static long read(ByteBuffer buffer, EventHandler handler) {
+        long events = 0;
+        for (int size; (size = sizeAt(buffer, buffer.position())) >= 0; events++) {
+            readAt(buffer, buffer.position(), handler);
+            buffer.position(buffer.position() + size);
+        }
+        return events;
+    }
+
+    // Returns the size of the complete record starting at the given position, or -1 if the
+    // buffer ends before it does
+    static int sizeAt(ByteBuffer buffer, int position) {
+        if (buffer.limit() - position < HEADER_SIZE) {
+            return -1;
+        }
+        final int size = sizeAt(buffer, position, buffer.get(position));
+        return size < 0 || buffer.limit() - position < size ? -1 : size;
+    }
+
+    // Contest id of the complete record starting at the given position
+    static long contestIdAt(ByteBuffer buffer, int position) {
+        return buffer.getLong(position + 1);
+    }
+
+    // Passes the complete record starting at the given position to the handler. Only reads
+    // at absolute offsets, so many threads may read records of the same buffer.
+    static void readAt(ByteBuffer buffer, int position, EventHandler handler) {
+        final long contestId = buffer.getLong(position + 1);
+        final int body = position + HEADER_SIZE;
+        switch (buffer.get(position)) {
+            case JOIN:
+                handler.onJoin(contestId, buffer.getInt(body), stringAt(buffer, body + 4));
+                break;
+            case GUESS:
+                handler.onGuess(contestId, buffer.getInt(body), buffer.get(body + 4) & 0xFF);
+                break;
+            case ROUND_EVALUATED:
+                handler.onRoundEvaluated(contestId, buffer.getInt(body), buffer.getFloat(body + 4),
+                        buffer.getInt(body + 8));
+                break;
+            case PENALTY:
+                handler.onPenalty(contestId, buffer.getInt(body), buffer.getInt(body + 4));
+                break;
+            case RULES:
+                handler.onRules(contestId, targetMode(buffer.get(body) & 0xFF), stringAt(buffer, body + 17),
+                        buffer.getInt(body + 1), buffer.getInt(body + 5), buffer.getInt(body + 9),
+                        buffer.getInt(body + 13));
+                break;
+            case TARGET_MODE:
+                handler.onTargetMode(contestId, targetMode(buffer.get(body) & 0xFF));
+                break;
+            default:
+                handler.onReset(contestId);
+                break;
+        }
+    }
+
+    // Reads a u16 length followed by that many bytes of UTF-8
+    private static String stringAt(ByteBuffer buffer, int position) {
+        final byte[] bytes = new byte[buffer.getShort(position) & 0xFFFF];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(position + 2 + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Returns the size of the record starting at the given position, or -1 if it cannot be known yet
+    private static int sizeAt(ByteBuffer buffer, int position, byte type) {
+        switch (type) {
+            case JOIN:
+                if (buffer.limit() - position < JOIN_SIZE) {
+                    return -1;
+                }
+                return JOIN_SIZE + (buffer.getShort(position + JOIN_SIZE - 2) & 0xFFFF);
+            case GUESS:
+                return GUESS_SIZE;
+            case ROUND_EVALUATED:
+                return ROUND_EVALUATED_SIZE;
+            case PENALTY:
+                return PENALTY_SIZE;
+            case RESET:
+                return RESET_SIZE;
+            case RULES:
+                if (buffer.limit() - position < RULES_SIZE) {
+                    return -1;
+                }
+                return RULES_SIZE + (buffer.getShort(position + RULES_SIZE - 2) & 0xFFFF);
+            case TARGET_MODE:
+                return TARGET_MODE_SIZE;
+            case 0: // Zero-filled space a crash can leave at the end of a file
+                return -1;
+            default:
+                throw new IllegalStateException("Unknown event type " + type + " at offset " + position);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.persistence;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+// Names of the files in a log directory. Segments are numbered from 1 and replayed in
+// order; snapshot-N holds the state from before segment-N was started.
+final class LogFiles {
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+
+    private LogFiles() {
+    }
+
+    static Path segment(Path directory, int index) {
+        return directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    static Path snapshot(Path directory, int index) {
+        return directory.resolve(String.format("%s%010d%s", SNAPSHOT_PREFIX, index, SNAPSHOT_SUFFIX));
+    }
+
+    static int[] segments(Path directory) throws IOException {
+        return indexes(directory, SEGMENT_PREFIX, SEGMENT_SUFFIX);
+    }
+
+    static int[] snapshots(Path directory) throws IOException {
+        return indexes(directory, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+    }
+
+    private static int[] indexes(Path directory, String prefix, String suffix) throws IOException {
+        int[] indexes = new int[8];
+        int count = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*" + suffix)) {
+            for (Path file : files) {
+                final String name = file.getFileName().toString();
+                if (count == indexes.length) {
+                    indexes = Arrays.copyOf(indexes, count * 2);
+                }
+                indexes[count++] = Integer.parseInt(name.substring(prefix.length(), name.length() - suffix.length()));
+            }
+        }
+        indexes = Arrays.copyOf(indexes, count);
+        Arrays.sort(indexes);
+        return indexes;
+    }
+}
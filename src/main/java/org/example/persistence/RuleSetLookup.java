@@ -0,0 +1,44 @@
+package org.example.persistence;
+
+import org.example.rules.RuleSet;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Finds the RuleSet a logged contest was played with. Rules are code and cannot be logged,
+// so the log holds the name and parameters of a contest's ruleset and the caller passes
+// every ruleset its contests may use; RuleSet.DEFAULT is always known. Rulesets are looked
+// up by name, and the logged parameters must match the ruleset found.
+final class RuleSetLookup {
+    private final Map<String, RuleSet> ruleSets = new HashMap<>();
+
+    RuleSetLookup(RuleSet... ruleSets) {
+        this.ruleSets.put(RuleSet.DEFAULT.getName(), RuleSet.DEFAULT);
+        for (RuleSet ruleSet : ruleSets) {
+            if (ruleSet.getName() == null) {
+                throw new IllegalArgumentException("Logged contests can only be played with named rulesets");
+            }
+            final RuleSet known = this.ruleSets.putIfAbsent(ruleSet.getName(), ruleSet);
+            if (known != null && known != ruleSet) {
+                throw new IllegalArgumentException("Two rulesets are named " + ruleSet.getName());
+            }
+        }
+    }
+
+    RuleSet find(long contestId, String name, int multiplierNumerator, int multiplierDenominator, int startingScore,
+                 int penalty) {
+        final RuleSet ruleSet = ruleSets.get(name);
+        if (ruleSet == null) {
+            throw new IllegalStateException("Contest " + contestId + " was played with ruleset " + name
+                    + ", which was not given");
+        } else if (ruleSet.getMultiplierNumerator() != multiplierNumerator
+                || ruleSet.getMultiplierDenominator() != multiplierDenominator
+                || ruleSet.getStartingScore() != startingScore
+                || ruleSet.getPenalty() != penalty) {
+            throw new IllegalStateException("Contest " + contestId + " was played with ruleset " + name + " of "
+                    + multiplierNumerator + "/" + multiplierDenominator + " of the average, starting score "
+                    + startingScore + ", penalty " + penalty + ", which does not match the one given");
+        }
+        return ruleSet;
+    }
+}
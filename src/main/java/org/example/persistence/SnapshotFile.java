@@ -0,0 +1,106 @@
+package org.example.persistence;
+
+import org.example.BeautyContest;
+import org.example.Contestant;
+import org.example.TargetMode;
+import org.example.rules.RuleSet;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Compact image of every contest in a log, taken when a new segment is started:
+//   magic, version, first segment to replay, contest count, then for every contest
+//   contestId, round, target mode, the name (u16 length, UTF-8) and parameters of its
+//   ruleset as in the RULES record of the log, contestant count and per contestant: name length (u16), UTF-8 name,
+//   score (i32), guess in the current round (u8, 0xFF if none)
+final class SnapshotFile {
+    private static final int MAGIC = 0x42435331; // "BCS1"
+    private static final int VERSION = 4;
+    private static final int NO_GUESS = 0xFF;
+
+    private SnapshotFile() {
+    }
+
+    static void write(Path file, int segment, Map<Long, BeautyContest> contests) throws IOException {
+        final Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileOutputStream stream = new FileOutputStream(temporary.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(segment);
+            out.writeInt(contests.size());
+            for (Map.Entry<Long, BeautyContest> entry : contests.entrySet()) {
+                final BeautyContest contest = entry.getValue();
+                out.writeLong(entry.getKey());
+                final RuleSet ruleSet = contest.getRuleSet();
+                out.writeInt(contest.getRound());
+                out.writeByte(contest.getTargetMode().ordinal());
+                final byte[] ruleSetName = ruleSet.getName().getBytes(StandardCharsets.UTF_8);
+                out.writeShort(ruleSetName.length);
+                out.write(ruleSetName);
+                out.writeInt(ruleSet.getMultiplierNumerator());
+                out.writeInt(ruleSet.getMultiplierDenominator());
+                out.writeInt(ruleSet.getStartingScore());
+                out.writeInt(ruleSet.getPenalty());
+                out.writeInt(contest.getContestantCount());
+                for (int id = 0; id < contest.getContestantCount(); id++) {
+                    final byte[] name = contest.getContestant(id).getName().getBytes(StandardCharsets.UTF_8);
+                    out.writeShort(name.length);
+                    out.write(name);
+                    out.writeInt(contest.getScore(id));
+                    final int guess = contest.getGuess(id);
+                    out.writeByte(guess < 0 ? NO_GUESS : guess);
+                }
+            }
+            out.flush();
+            stream.getFD().sync();
+        }
+        // The snapshot only becomes visible once it is complete
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // Returns the segment replay has to start from and fills contests with the snapshot's contests
+    static int read(Path file, Map<Long, BeautyContest> contests, RuleSetLookup ruleSets) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Not a snapshot: " + file);
+            }
+            final int segment = buffer.getInt();
+            final int contestCount = buffer.getInt();
+            final Map<Long, BeautyContest> read = new LinkedHashMap<>();
+            for (int c = 0; c < contestCount; c++) {
+                final long contestId = buffer.getLong();
+                final int round = buffer.getInt();
+                final TargetMode targetMode = EventRecords.targetMode(buffer.get() & 0xFF);
+                final byte[] ruleSetName = new byte[buffer.getShort() & 0xFFFF];
+                buffer.get(ruleSetName);
+                final RuleSet ruleSet = ruleSets.find(contestId, new String(ruleSetName, StandardCharsets.UTF_8),
+                        buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt());
+                final int contestantCount = buffer.getInt();
+                final Contestant[] contestants = new Contestant[contestantCount];
+                final int[] scores = new int[contestantCount];
+                final int[] guesses = new int[contestantCount];
+                for (int id = 0; id < contestantCount; id++) {
+                    final byte[] name = new byte[buffer.getShort() & 0xFFFF];
+                    buffer.get(name);
+                    contestants[id] = new Contestant(new String(name, StandardCharsets.UTF_8));
+                    scores[id] = buffer.getInt();
+                    final int guess = buffer.get() & 0xFF;
+                    guesses[id] = guess == NO_GUESS ? -1 : guess;
+                }
+                final BeautyContest contest = BeautyContest.restore(ruleSet, contestants, round, scores, guesses);
+                contest.setTargetMode(targetMode);
+                read.put(contestId, contest);
+            }
+            contests.putAll(read);
+            return segment;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package org.example.rules;
+
+import org.example.RoundEngine;
+import org.example.TargetMode;
+
+import java.util.Arrays;
+
+// The state of a round while its rules are applied: the guess histogram, the losing guess
+// values, the penalty and the special rules that applied. A context is reused for every
+// round of an engine, so evaluating a round does not allocate.
+//
+// The target is the multiplier of the ruleset times the average guess. It is computed when
+// first asked for, so rules that take guesses out of the round must run before any rule
+// that reads the target.
+public final class RoundContext {
+    private final int[] guessCounts = new int[RoundEngine.MAX_GUESS + 1];
+    private final boolean[] losingGuesses = new boolean[RoundEngine.MAX_GUESS + 1];
+    private long sum;
+    private int counted;
+    private int duplicateValues;
+    private int remainingContestants;
+    private TargetMode targetMode;
+    private int multiplierNumerator;
+    private int multiplierDenominator;
+    private float multiplier;
+    private boolean targetKnown;
+    private float target;
+    private int penalty;
+    private int rules;
+
+    void begin(int[] counts, long sum, int counted, int duplicateValues, int remainingContestants,
+               TargetMode targetMode, RuleSet ruleSet) {
+        System.arraycopy(counts, 0, guessCounts, 0, guessCounts.length);
+        Arrays.fill(losingGuesses, false);
+        this.sum = sum;
+        this.counted = counted;
+        this.duplicateValues = duplicateValues;
+        this.remainingContestants = remainingContestants;
+        this.targetMode = targetMode;
+        this.multiplierNumerator = ruleSet.getMultiplierNumerator();
+        this.multiplierDenominator = ruleSet.getMultiplierDenominator();
+        this.multiplier = ruleSet.getMultiplier();
+        this.targetKnown = false;
+        this.penalty = ruleSet.getPenalty();
+        this.rules = 0;
+    }
+
+    public int getRemainingContestants() {
+        return remainingContestants;
+    }
+
+    public TargetMode getTargetMode() {
+        return targetMode;
+    }
+
+    // Number of guesses of the given value still taking part in the round
+    public int getCount(int guess) {
+        return guessCounts[guess];
+    }
+
+    public int getGuessCount() {
+        return counted;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    // Number of guess values submitted more than once
+    public int getDuplicateValues() {
+        return duplicateValues;
+    }
+
+    // Every guess of the value loses and no longer counts towards the target
+    public void eliminate(int guess) {
+        final int count = guessCounts[guess];
+        losingGuesses[guess] = true;
+        if (count == 0) {
+            return;
+        }
+        if (count > 1) {
+            duplicateValues--;
+        }
+        guessCounts[guess] = 0;
+        sum -= (long) guess * count;
+        counted -= count;
+        targetKnown = false;
+    }
+
+    // Every guess of the value loses but still counts towards the target
+    public void markLosing(int guess) {
+        losingGuesses[guess] = true;
+    }
+
+    public boolean isLosing(int guess) {
+        return losingGuesses[guess];
+    }
+
+    // The target in float arithmetic; NaN if no guess counts
+    public float getTarget() {
+        if (!targetKnown) {
+            target = targetMode == TargetMode.EXACT
+                    ? (float) ((double) getScaledTarget() / getTargetScale())
+                    : ((float) sum / counted) * multiplier;
+            targetKnown = true;
+        }
+        return target;
+    }
+
+    // The exact target is getScaledTarget() / getTargetScale(), so the distance of a guess
+    // to it, scaled the same way, is |getTargetScale() * guess - getScaledTarget()|
+    public long getScaledTarget() {
+        return multiplierNumerator * sum;
+    }
+
+    public long getTargetScale() {
+        return (long) multiplierDenominator * counted;
+    }
+
+    // The target rounded half up to an int, computed exactly in EXACT mode; -1 if no guess counts
+    public int getRoundedTarget() {
+        if (targetMode == TargetMode.EXACT) {
+            return roundTarget(getScaledTarget(), getTargetScale());
+        }
+        return counted == 0 ? -1 : Math.round(getTarget());
+    }
+
+    // floor(scaledTarget / scale + 1/2), or -1 if the scale is 0
+    static int roundTarget(long scaledTarget, long scale) {
+        return scale == 0 ? -1 : (int) ((2 * scaledTarget + scale) / (2 * scale));
+    }
+
+    public int getPenalty() {
+        return penalty;
+    }
+
+    public void setPenalty(int penalty) {
+        this.penalty = penalty;
+    }
+
+    // Bitmask of the rules that changed the outcome, e.g. the RoundEngine.RULE_* constants
+    public int getRules() {
+        return rules;
+    }
+
+    public void addRules(int rules) {
+        this.rules |= rules;
+    }
+
+    // Copies the losing guess values
+    public void copyLosingGuesses(boolean[] into) {
+        System.arraycopy(losingGuesses, 0, into, 0, losingGuesses.length);
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.rules;
+
+// One stage of a RuleSet. Rules run in the order they were configured and only in rounds
+// where at most getMaxContestants() contestants are still in the game, so inactive rules
+// are left out of the evaluation plan instead of being checked every round.
+public interface Rule {
+    // Largest number of remaining contestants for which the rule applies
+    int getMaxContestants();
+
+    // Applies the rule to the round; returns false if the losers are decided and the
+    // remaining rules must be skipped
+    boolean apply(RoundContext round);
+}
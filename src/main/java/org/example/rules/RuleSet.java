@@ -0,0 +1,145 @@
+package org.example.rules;
+
+import org.example.RoundEngine;
+import org.example.TargetMode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// A variant of the game: the multiplier applied to the average guess, the starting score,
+// the base penalty and the rule stages that decide each round. Rules are code, so event
+// logs identify a ruleset by its name; only named rulesets can be logged.
+//
+// Which rules are active only depends on the number of contestants still in the game, so
+// the ruleset is compiled up front into one plan per distinct set of active rules. Looking
+// up the plan for a round is an array access for lobbies up to PLANNED_CONTESTANTS, a
+// single comparison once the lobby is larger than every rule's threshold, and a binary
+// search over the thresholds in between; rules that do not apply are never called.
+public final class RuleSet {
+    // The rules of the original game
+    public static final RuleSet DEFAULT = new RuleSet("default", 4, 5, RoundEngine.STARTING_SCORE, 1,
+            Rules.duplicateElimination(4),
+            Rules.exactHitPenalty(3, 2),
+            Rules.zeroVsHundred(2),
+            Rules.closestGuessWins());
+
+    private static final int PLANNED_CONTESTANTS = 64;
+
+    private final String name;
+    private final int multiplierNumerator;
+    private final int multiplierDenominator;
+    private final int startingScore;
+    private final int penalty;
+    private final Rule[] rules;
+
+    // Plan for lobbies of n contestants, for n up to PLANNED_CONTESTANTS
+    private final Rule[][] plansBySize;
+    // thresholds[i] is the largest lobby that plans[i] is used for, in ascending order
+    private final int[] thresholds;
+    private final Rule[][] plans;
+    // Plan for lobbies larger than every threshold
+    private final Rule[] largePlan;
+
+    // The target is multiplierNumerator / multiplierDenominator times the average guess
+    public RuleSet(int multiplierNumerator, int multiplierDenominator, int startingScore, int penalty, Rule... rules) {
+        this(null, multiplierNumerator, multiplierDenominator, startingScore, penalty, rules);
+    }
+
+    // A ruleset that contests can be logged with; the name must tell it apart from every
+    // other ruleset of the log
+    public RuleSet(String name, int multiplierNumerator, int multiplierDenominator, int startingScore, int penalty,
+                   Rule... rules) {
+        if (name != null && name.isEmpty()) {
+            throw new IllegalArgumentException("Name must not be empty");
+        } else if (multiplierNumerator < 0 || multiplierDenominator <= 0) {
+            throw new IllegalArgumentException("Multiplier must be a non-negative fraction");
+        } else if (startingScore <= 0 || startingScore > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Starting score must be positive and fit in a short");
+        } else if (penalty <= 0) {
+            throw new IllegalArgumentException("Penalty must be positive");
+        }
+        this.name = name;
+        this.multiplierNumerator = multiplierNumerator;
+        this.multiplierDenominator = multiplierDenominator;
+        this.startingScore = startingScore;
+        this.penalty = penalty;
+        this.rules = rules.clone();
+
+        this.thresholds = Arrays.stream(rules)
+                .mapToInt(Rule::getMaxContestants)
+                .filter(max -> max != Integer.MAX_VALUE)
+                .distinct()
+                .sorted()
+                .toArray();
+        this.plans = new Rule[thresholds.length][];
+        for (int i = 0; i < thresholds.length; i++) {
+            plans[i] = compile(thresholds[i]);
+        }
+        this.largePlan = compile(Integer.MAX_VALUE);
+        this.plansBySize = new Rule[PLANNED_CONTESTANTS + 1][];
+        for (int contestants = 0; contestants <= PLANNED_CONTESTANTS; contestants++) {
+            plansBySize[contestants] = lookUp(contestants);
+        }
+    }
+
+    private Rule[] compile(int contestants) {
+        List<Rule> active = new ArrayList<>();
+        for (Rule rule : rules) {
+            if (contestants <= rule.getMaxContestants()) {
+                active.add(rule);
+            }
+        }
+        return active.toArray(new Rule[0]);
+    }
+
+    private Rule[] lookUp(int contestants) {
+        if (thresholds.length == 0 || contestants > thresholds[thresholds.length - 1]) {
+            return largePlan;
+        }
+        final int index = Arrays.binarySearch(thresholds, contestants);
+        return plans[index >= 0 ? index : -index - 1];
+    }
+
+    // The rules that apply with the given number of contestants still in the game
+    Rule[] planFor(int contestants) {
+        return contestants >= 0 && contestants <= PLANNED_CONTESTANTS ? plansBySize[contestants] : lookUp(contestants);
+    }
+
+    // Null for rulesets that cannot be logged
+    public String getName() {
+        return name;
+    }
+
+    public int getMultiplierNumerator() {
+        return multiplierNumerator;
+    }
+
+    public int getMultiplierDenominator() {
+        return multiplierDenominator;
+    }
+
+    public float getMultiplier() {
+        return (float) multiplierNumerator / multiplierDenominator;
+    }
+
+    public int getStartingScore() {
+        return startingScore;
+    }
+
+    // Penalty for losing a round before any rule changes it
+    public int getPenalty() {
+        return penalty;
+    }
+
+    // Applies the rules that are active for the round to the given guess statistics
+    public void decide(RoundContext round, int[] guessCounts, long sum, int counted, int duplicateValues,
+                       int remainingContestants, TargetMode targetMode) {
+        round.begin(guessCounts, sum, counted, duplicateValues, remainingContestants, targetMode, this);
+        for (Rule rule : planFor(remainingContestants)) {
+            if (!rule.apply(round)) {
+                break;
+            }
+        }
+    }
+}
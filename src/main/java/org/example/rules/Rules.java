@@ -0,0 +1,127 @@
+package org.example.rules;
+
+import org.example.RoundEngine;
+import org.example.TargetMode;
+
+// The rules of the original game, as factories for rule stages
+public final class Rules {
+    private Rules() {
+    }
+
+    // Duplicate guesses lose and do not count towards the target
+    public static Rule duplicateElimination(int maxContestants) {
+        return new Rule() {
+            @Override
+            public int getMaxContestants() {
+                return maxContestants;
+            }
+
+            @Override
+            public boolean apply(RoundContext round) {
+                if (round.getDuplicateValues() > 0) {
+                    for (int guess = RoundEngine.MIN_GUESS; guess <= RoundEngine.MAX_GUESS; guess++) {
+                        if (round.getCount(guess) > 1) {
+                            round.eliminate(guess);
+                        }
+                    }
+                    round.addRules(RoundEngine.RULE_DUPLICATE_ELIMINATION);
+                }
+                return true;
+            }
+        };
+    }
+
+    // The penalty is multiplied by the given factor if someone guessed the rounded target
+    public static Rule exactHitPenalty(int maxContestants, int factor) {
+        return new Rule() {
+            @Override
+            public int getMaxContestants() {
+                return maxContestants;
+            }
+
+            @Override
+            public boolean apply(RoundContext round) {
+                // Page 4 of ch 51.3 shows that the "target" is rounded to an int for sake of an exact match
+                final int roundedTarget = round.getRoundedTarget();
+                if (roundedTarget >= RoundEngine.MIN_GUESS && roundedTarget <= RoundEngine.MAX_GUESS
+                        && round.getCount(roundedTarget) > 0) {
+                    round.setPenalty(round.getPenalty() * factor);
+                    round.addRules(RoundEngine.RULE_DOUBLE_PENALTY);
+                }
+                return true;
+            }
+        };
+    }
+
+    // If one contestant chooses 100 and another 0, the one who chooses 100 wins the round
+    // and nobody else loses
+    public static Rule zeroVsHundred(int maxContestants) {
+        return new Rule() {
+            @Override
+            public int getMaxContestants() {
+                return maxContestants;
+            }
+
+            @Override
+            public boolean apply(RoundContext round) {
+                if (round.getCount(RoundEngine.MIN_GUESS) > 0 && round.getCount(RoundEngine.MAX_GUESS) > 0) {
+                    round.markLosing(RoundEngine.MIN_GUESS);
+                    round.addRules(RoundEngine.RULE_ZERO_VS_HUNDRED);
+                    return false;
+                }
+                return true;
+            }
+        };
+    }
+
+    // Every guess that is not closest to the target loses
+    public static Rule closestGuessWins() {
+        return new Rule() {
+            @Override
+            public int getMaxContestants() {
+                return Integer.MAX_VALUE;
+            }
+
+            @Override
+            public boolean apply(RoundContext round) {
+                if (round.getTargetMode() == TargetMode.EXACT) {
+                    markDistantGuessesExact(round);
+                } else {
+                    markDistantGuesses(round);
+                }
+                return false;
+            }
+        };
+    }
+
+    private static void markDistantGuesses(RoundContext round) {
+        final float target = round.getTarget();
+        float smallestDiff = 777;
+        for (int guess = RoundEngine.MIN_GUESS; guess <= RoundEngine.MAX_GUESS; guess++) {
+            if (round.getCount(guess) > 0) {
+                smallestDiff = Math.min(smallestDiff, Math.abs(target - guess));
+            }
+        }
+        for (int guess = RoundEngine.MIN_GUESS; guess <= RoundEngine.MAX_GUESS; guess++) {
+            if (round.getCount(guess) > 0 && Math.abs(guess - target) != smallestDiff) {
+                round.markLosing(guess);
+            }
+        }
+    }
+
+    private static void markDistantGuessesExact(RoundContext round) {
+        final long scaledTarget = round.getScaledTarget();
+        final long scale = round.getTargetScale();
+        long smallestDiff = Long.MAX_VALUE;
+        for (int guess = RoundEngine.MIN_GUESS; guess <= RoundEngine.MAX_GUESS; guess++) {
+            if (round.getCount(guess) > 0) {
+                smallestDiff = Math.min(smallestDiff, Math.abs(scale * guess - scaledTarget));
+            }
+        }
+        for (int guess = RoundEngine.MIN_GUESS; guess <= RoundEngine.MAX_GUESS; guess++) {
+            if (round.getCount(guess) > 0 && Math.abs(scale * guess - scaledTarget) != smallestDiff) {
+                round.markLosing(guess);
+            }
+        }
+    }
+}
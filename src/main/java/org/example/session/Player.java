@@ -0,0 +1,15 @@
+package org.example.session;
+
+// One connected player. Each player runs in a task of its own, so guess() may block, e.g.
+// on the player's connection, without holding up anybody else.
+public interface Player {
+    // Called when a round opens; the guess counts if it arrives before the round closes
+    int guess(int round) throws Exception;
+
+    // Called once a round this player was still in has been evaluated
+    void onResult(RoundOutcome outcome, int score);
+
+    // code is one of the GuessRejection constants, or LATE if the round had already closed
+    default void onRejected(int round, int guess, byte code) {
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.session;
+
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// The result of an evaluated round, shared by every player. The scores of a round are only
+// valid until Player.onResult() returns: once every player has been told, the runtime reuses
+// them for a later round. The outcome of the last round is never reused.
+public final class RoundOutcome {
+    private final int round;
+    private final float target;
+    private final int penalty;
+    private final int remainingContestants;
+    private final boolean gameOver;
+    private final int[] scores;
+    // Player tasks still to be told, and where the scores go once they all have; null if the
+    // scores are kept
+    private final AtomicInteger readers;
+    private final Queue<int[]> spare;
+
+    RoundOutcome(int round, float target, int penalty, int remainingContestants, boolean gameOver, int[] scores,
+                 int readers, Queue<int[]> spare) {
+        this.round = round;
+        this.target = target;
+        this.penalty = penalty;
+        this.remainingContestants = remainingContestants;
+        this.gameOver = gameOver;
+        this.scores = scores;
+        this.readers = gameOver ? null : new AtomicInteger(readers);
+        this.spare = spare;
+        if (!gameOver && readers == 0) {
+            spare.add(scores);
+        }
+    }
+
+    // Called by every player task once its player has been told
+    void release() {
+        if (readers != null && readers.decrementAndGet() == 0) {
+            spare.add(scores);
+        }
+    }
+
+    public int getRound() {
+        return round;
+    }
+
+    public float getTarget() {
+        return target;
+    }
+
+    public int getPenalty() {
+        return penalty;
+    }
+
+    public int getRemainingContestants() {
+        return remainingContestants;
+    }
+
+    // No further round opens once at most one contestant is left
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    // Score after this round of the contestant with the given BeautyContest id
+    public int getScore(int id) {
+        return scores[id];
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.session;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+// A value published once that any number of threads can wait for. Waiters queue themselves
+// and are unparked one by one, so publishing does not make every waiter contend for a
+// shared monitor on its way out, and parking is cheap for virtual threads.
+final class RoundSignal<T> {
+    private volatile T value;
+    private volatile boolean cancelled;
+    private volatile Throwable failure;
+    private final ConcurrentLinkedQueue<Thread> waiters = new ConcurrentLinkedQueue<>();
+
+    // Throws CancellationException if the signal is cancelled before a value is published, and
+    // an IllegalStateException caused by the failure if it failed
+    T await() throws InterruptedException {
+        T published = value;
+        if (published != null) {
+            return published;
+        }
+        final Thread current = Thread.currentThread();
+        waiters.add(current);
+        try {
+            // Checked again after queueing, so a value published meanwhile is not missed
+            while ((published = value) == null) {
+                if (failure != null) {
+                    throw new IllegalStateException("Session failed", failure);
+                }
+                if (cancelled) {
+                    throw new CancellationException();
+                }
+                LockSupport.park(this);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+            return published;
+        } finally {
+            waiters.remove(current);
+        }
+    }
+
+    T get() {
+        return value;
+    }
+
+    void publish(T value) {
+        this.value = value;
+        wakeWaiters();
+    }
+
+    // Has waiters give up unless a value was published
+    void cancel() {
+        cancelled = true;
+        wakeWaiters();
+    }
+
+    // Has waiters fail with the given cause unless a value was published
+    void fail(Throwable cause) {
+        failure = cause;
+        wakeWaiters();
+    }
+
+    private void wakeWaiters() {
+        for (Thread waiter : waiters) {
+            LockSupport.unpark(waiter);
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package org.example.session;
+
+import org.example.BeautyContest;
+import org.example.Contestant;
+import org.example.GuessRejection;
+import org.example.RoundEngine;
+
+import java.io.Closeable;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Runs a live game of one contest with a task per connected player. Each task waits for a
+// round to open, asks its player for a guess, submits it and waits for the round's outcome.
+//
+// A round closes as soon as every contestant still alive has guessed, or when its deadline
+// expires; contestants without a guess by then are not penalized. The next round opens
+// right away until at most one contestant is left. Rounds are chained: every round carries
+// the signal that opens the next one, so a task always waits on the round it needs.
+//
+// Submitting takes no lock: every contestant owns a slot holding its latest guess stamped
+// with its round, which moves to the open round with a single CAS. The task that closes a
+// round stamps every slot as closed, so a guess either makes it into the round or is LATE,
+// and only then feeds the guesses to the contest, which is only ever used by one closing
+// task at a time.
+//
+// Player tasks run on virtual threads when the runtime was built with the "jdk21" profile
+// and runs on Java 21 or later, and on a pool of platform threads otherwise. The contest
+// must only be used through the runtime.
+//
+// If closing a round throws, e.g. in a ContestListener, the session fails: no further round
+// opens and every waiting player task and awaitGameOver() throw an IllegalStateException
+// caused by the failure.
+public final class SessionRuntime implements Closeable {
+    // Rejection code passed to Player.onRejected() for guesses that arrive after their round closed
+    public static final byte LATE = GuessRejection.CODES;
+
+    // Slots hold round << GUESS_BITS | guess, or CLOSED instead of the guess once the round closed
+    private static final int GUESS_BITS = 7;
+    private static final int GUESS_MASK = (1 << GUESS_BITS) - 1;
+    private static final int CLOSED = GUESS_MASK;
+
+    private final BeautyContest contest;
+    private final long deadlineNanos;
+    private final ExecutorService players;
+    private final boolean virtualThreads;
+    private final ScheduledExecutorService deadlines;
+    private final AtomicIntegerArray slots;
+
+    private final RoundSignal<RoundOutcome> gameOver = new RoundSignal<>();
+
+    // Guards the lifecycle: connecting, starting, opening rounds and closing the runtime.
+    // Once the game has started, the first round is only referenced by the player tasks, so
+    // rounds they have all moved past can be collected.
+    private final ReentrantLock lock = new ReentrantLock();
+    private RoundSignal<RoundState> firstRound = new RoundSignal<>();
+    private boolean started;
+    private boolean shutDown;
+    // Player tasks per contestant, only changed before the game starts
+    private final int[] tasks;
+
+    // Only used by the task closing a round
+    private int[] pairs = new int[0];
+    private byte[] results = new byte[0];
+    // Scores of outcomes every player task has been told about, see RoundOutcome
+    private final Queue<int[]> spareScores = new ConcurrentLinkedQueue<>();
+
+    private static final class RoundState {
+        final int round;
+        // Contestants still alive when the round opened
+        final int expected;
+        final AtomicInteger guessed = new AtomicInteger();
+        final AtomicBoolean closing = new AtomicBoolean();
+        final RoundSignal<RoundOutcome> closed = new RoundSignal<>();
+        final RoundSignal<RoundState> next = new RoundSignal<>();
+        volatile ScheduledFuture<?> deadline;
+
+        RoundState(int round, int expected) {
+            this.round = round;
+            this.expected = expected;
+        }
+    }
+
+    public SessionRuntime(BeautyContest contest, long deadline, TimeUnit unit) {
+        if (deadline <= 0) {
+            throw new IllegalArgumentException("Rounds need a positive deadline");
+        }
+        this.contest = contest;
+        this.deadlineNanos = unit.toNanos(deadline);
+        this.slots = new AtomicIntegerArray(contest.getContestantCount());
+        this.tasks = new int[contest.getContestantCount()];
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.players = virtual != null ? virtual : Executors.newCachedThreadPool(daemon("session-player"));
+        ScheduledThreadPoolExecutor deadlines = new ScheduledThreadPoolExecutor(1, daemon("session-deadlines"));
+        // Most rounds close before their deadline, so cancelled deadlines must not pile up
+        deadlines.setRemoveOnCancelPolicy(true);
+        this.deadlines = deadlines;
+    }
+
+    // VirtualThreads is only compiled by the jdk21 profile, so it is looked up reflectively
+    // and this class still loads on Java 8
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Class.forName("org.example.session.VirtualThreads")
+                    .getDeclaredMethod("newExecutor", String.class)
+                    .invoke(null, "session-player-");
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return task -> {
+            Thread thread = new Thread(task, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    // Starts the task of a player; all players must connect before the game starts
+    public void connect(Contestant c, Player player) {
+        final int id = contest.indexOf(c);
+        if (id == -1) {
+            throw new IllegalArgumentException(GuessRejection.getMessage(GuessRejection.NOT_PARTICIPATING));
+        }
+        final RoundSignal<RoundState> first;
+        lock.lock();
+        try {
+            if (started) {
+                throw new IllegalStateException("Game has already started");
+            }
+            first = firstRound;
+            tasks[id]++;
+        } finally {
+            lock.unlock();
+        }
+        players.execute(() -> play(id, player, first));
+    }
+
+    // Opens the first round
+    public void start() {
+        lock.lock();
+        try {
+            if (started) {
+                throw new IllegalStateException("Game has already started");
+            }
+            started = true;
+            if (!shutDown) {
+                open(firstRound);
+            }
+            firstRound = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Waits for the outcome of the last round; throws CancellationException if the runtime
+    // is closed before the game is over, and IllegalStateException if the session failed
+    public RoundOutcome awaitGameOver() throws InterruptedException {
+        return gameOver.await();
+    }
+
+    private void play(int id, Player player, RoundSignal<RoundState> firstRound) {
+        try {
+            RoundSignal<RoundState> opening = firstRound;
+            while (true) {
+                final RoundState state = opening.await();
+                int guess;
+                try {
+                    guess = player.guess(state.round);
+                } catch (InterruptedException e) {
+                    return;
+                } catch (Exception e) {
+                    // A broken player simply misses the round
+                    guess = -1;
+                }
+                if (guess != -1) {
+                    final byte code = submit(state, id, guess);
+                    if (code != GuessRejection.ACCEPTED) {
+                        player.onRejected(state.round, guess, code);
+                    }
+                }
+                final RoundOutcome outcome = state.closed.await();
+                final int score = outcome.getScore(id);
+                try {
+                    player.onResult(outcome, score);
+                } finally {
+                    outcome.release();
+                }
+                if (score <= 0 || outcome.isGameOver()) {
+                    return;
+                }
+                opening = state.next;
+            }
+        } catch (InterruptedException | CancellationException e) {
+            // The runtime was closed
+        } catch (IllegalStateException e) {
+            // The session failed, awaitGameOver() reports why
+        }
+    }
+
+    private byte submit(RoundState state, int id, int guess) {
+        if (guess < RoundEngine.MIN_GUESS || guess > RoundEngine.MAX_GUESS) {
+            return GuessRejection.OUT_OF_BOUNDS;
+        }
+        final int stamped = state.round << GUESS_BITS | guess;
+        while (true) {
+            final int slot = slots.get(id);
+            final int round = slot >>> GUESS_BITS;
+            if (round > state.round || round == state.round && (slot & GUESS_MASK) == CLOSED) {
+                return LATE;
+            } else if (round == state.round) {
+                return GuessRejection.ALREADY_SUBMITTED;
+            } else if (slots.compareAndSet(id, slot, stamped)) {
+                break;
+            }
+        }
+        if (state.guessed.incrementAndGet() == state.expected) {
+            close(state);
+        }
+        return GuessRejection.ACCEPTED;
+    }
+
+    private void open(RoundSignal<RoundState> opening) {
+        final RoundState state = new RoundState(contest.getRound(), contest.getRemainingContestants());
+        state.deadline = deadlines.schedule(() -> close(state), deadlineNanos, TimeUnit.NANOSECONDS);
+        opening.publish(state);
+    }
+
+    // Called by the last guess of the round or by its deadline, whichever comes first. The
+    // deadline runs in a future nobody reads, so failures are reported through the signals.
+    private void close(RoundState state) {
+        if (!state.closing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            evaluate(state);
+        } catch (RuntimeException | Error e) {
+            fail(state, e);
+        }
+    }
+
+    private void evaluate(RoundState state) {
+        final ScheduledFuture<?> deadline = state.deadline;
+        if (deadline != null) {
+            deadline.cancel(false);
+        }
+        final int closedSlot = state.round << GUESS_BITS | CLOSED;
+        final int contestants = slots.length();
+        if (pairs.length < 2 * contestants) {
+            pairs = new int[2 * contestants];
+            results = new byte[contestants];
+        }
+        // Every task of a contestant alive when the round opened is told its outcome
+        int readers = 0;
+        int guesses = 0;
+        for (int id = 0; id < contestants; id++) {
+            if (tasks[id] > 0 && contest.getScore(id) > 0) {
+                readers += tasks[id];
+            }
+            final int slot = slots.getAndSet(id, closedSlot);
+            if (slot >>> GUESS_BITS == state.round) {
+                pairs[2 * guesses] = id;
+                pairs[2 * guesses + 1] = slot & GUESS_MASK;
+                guesses++;
+            }
+        }
+        contest.submitGuesses(pairs, 0, guesses, results);
+        contest.evaluateRound();
+
+        int[] scores = spareScores.poll();
+        if (scores == null) {
+            scores = new int[contestants];
+        }
+        for (int id = 0; id < contestants; id++) {
+            scores[id] = contest.getScore(id);
+        }
+        final int remaining = contest.getRemainingContestants();
+        final RoundOutcome outcome = new RoundOutcome(state.round,
+                contest.getRoundHistory().getTarget(state.round),
+                contest.getRoundHistory().getPenalty(state.round), remaining, remaining <= 1, scores,
+                readers, spareScores);
+        state.closed.publish(outcome);
+        if (outcome.isGameOver()) {
+            gameOver.publish(outcome);
+            return;
+        }
+        lock.lock();
+        try {
+            if (!shutDown) {
+                open(state.next);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void fail(RoundState state, Throwable failure) {
+        lock.lock();
+        try {
+            shutDown = true;
+        } finally {
+            lock.unlock();
+        }
+        state.closed.fail(failure);
+        state.next.fail(failure);
+        gameOver.fail(failure);
+    }
+
+    // Stops every player task, cancels pending deadlines and fails awaitGameOver() if the
+    // game is not over yet
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            shutDown = true;
+        } finally {
+            lock.unlock();
+        }
+        deadlines.shutdownNow();
+        players.shutdownNow();
+        gameOver.cancel();
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.simulation;
+
+// What a strategy can see when making its guess. A view is reused for every guess of a
+// playout, so strategies must not hold on to it.
+public final class RoundView {
+    int round;
+    int contestantId;
+    int score;
+    int remainingContestants;
+    float previousTarget;
+
+    // Rounds of the current game, starting at 1
+    public int getRound() {
+        return round;
+    }
+
+    public int getContestantId() {
+        return contestantId;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getRemainingContestants() {
+        return remainingContestants;
+    }
+
+    // Target of the previous round, NaN in the first round
+    public float getPreviousTarget() {
+        return previousTarget;
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.simulation;
+
+import org.example.RoundEngine;
+
+import java.util.Arrays;
+
+// Outcome counts of a batch of playouts. Every worker fills its own result and results
+// are merged afterwards, so accumulating needs no synchronization.
+public final class SimulationResult {
+    // Final scores can drop to -1 when a contestant on 1 point gets the double penalty
+    static final int MIN_SCORE = -1;
+    private static final int SCORE_BUCKETS = RoundEngine.STARTING_SCORE - MIN_SCORE + 1;
+
+    private final long[] wins;
+    private final long[][] finalScores;
+    private long games;
+    private long draws;
+    private long rounds;
+
+    SimulationResult(int strategies) {
+        this.wins = new long[strategies];
+        this.finalScores = new long[strategies][SCORE_BUCKETS];
+    }
+
+    void recordGame(RoundEngine engine, int rounds, int winner) {
+        games++;
+        this.rounds += rounds;
+        if (winner < 0) {
+            draws++;
+        } else {
+            wins[winner]++;
+        }
+        for (int id = 0; id < wins.length; id++) {
+            finalScores[id][engine.getScore(id) - MIN_SCORE]++;
+        }
+    }
+
+    SimulationResult merge(SimulationResult other) {
+        games += other.games;
+        draws += other.draws;
+        rounds += other.rounds;
+        for (int s = 0; s < wins.length; s++) {
+            wins[s] += other.wins[s];
+            for (int b = 0; b < SCORE_BUCKETS; b++) {
+                finalScores[s][b] += other.finalScores[s][b];
+            }
+        }
+        return this;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    // Games that ended without a single survivor, or hit the round limit
+    public long getDraws() {
+        return draws;
+    }
+
+    public long getWins(int strategy) {
+        return wins[strategy];
+    }
+
+    public double getWinRate(int strategy) {
+        return games == 0 ? 0 : (double) wins[strategy] / games;
+    }
+
+    // Number of games the strategy finished with the given score
+    public long getFinalScoreCount(int strategy, int score) {
+        final int bucket = score - MIN_SCORE;
+        return bucket < 0 || bucket >= SCORE_BUCKETS ? 0 : finalScores[strategy][bucket];
+    }
+
+    public double getMeanRounds() {
+        return games == 0 ? 0 : (double) rounds / games;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this)
+            return true;
+        if (!(obj instanceof SimulationResult))
+            return false;
+        SimulationResult other = (SimulationResult) obj;
+        return games == other.games && draws == other.draws && rounds == other.rounds
+                && Arrays.equals(wins, other.wins)
+                && Arrays.deepEquals(finalScores, other.finalScores);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(wins) * 31 + Long.hashCode(rounds);
+    }
+}
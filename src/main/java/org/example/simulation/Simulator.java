@@ -0,0 +1,93 @@
+package org.example.simulation;
+
+import org.example.RoundEngine;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Plays many seeded games between a fixed line-up of strategies, one contestant per
+// strategy, until at most one contestant is left. Games are split over a fork-join pool by
+// halving ranges down to a fixed batch size, and each half gets its own SplittableRandom
+// split off its parent's. The split tree only depends on the number of games, so a seed
+// yields the same result whatever the pool's parallelism.
+public class Simulator {
+    static final int GAMES_PER_BATCH = 256;
+    public static final int DEFAULT_MAX_ROUNDS = 1000;
+
+    private final Strategy[] strategies;
+    private final int maxRounds;
+
+    public Simulator(List<Strategy> strategies) {
+        this(strategies, DEFAULT_MAX_ROUNDS);
+    }
+
+    public Simulator(List<Strategy> strategies, int maxRounds) {
+        if (strategies.size() < 2) {
+            throw new IllegalArgumentException("A game needs at least two strategies");
+        }
+        this.strategies = strategies.toArray(new Strategy[0]);
+        this.maxRounds = maxRounds;
+    }
+
+    public SimulationResult run(long games, long seed) {
+        return run(games, seed, ForkJoinPool.commonPool());
+    }
+
+    public SimulationResult run(long games, long seed, ForkJoinPool pool) {
+        return pool.invoke(new Playouts(games, new SplittableRandom(seed)));
+    }
+
+    private SimulationResult play(long games, SplittableRandom random) {
+        final SimulationResult result = new SimulationResult(strategies.length);
+        final RoundEngine engine = new RoundEngine(strategies.length, 1);
+        final RoundView view = new RoundView();
+        for (long game = 0; game < games; game++) {
+            engine.reset();
+            view.previousTarget = Float.NaN;
+            int rounds = 0;
+            while (engine.getRemainingContestants() > 1 && rounds < maxRounds) {
+                view.round = ++rounds;
+                view.remainingContestants = engine.getRemainingContestants();
+                for (int id = engine.nextAlive(0); id >= 0; id = engine.nextAlive(id + 1)) {
+                    view.contestantId = id;
+                    view.score = engine.getScore(id);
+                    final int guess = strategies[id].guess(view, random);
+                    if (guess < RoundEngine.MIN_GUESS || guess > RoundEngine.MAX_GUESS) {
+                        throw new IllegalStateException("Strategy " + id + " guessed " + guess);
+                    }
+                    engine.submitGuess(id, guess);
+                }
+                final int round = engine.getRound();
+                engine.evaluateRound();
+                view.previousTarget = engine.getHistory().getTarget(round);
+            }
+            final int winner = engine.getRemainingContestants() == 1 ? engine.nextAlive(0) : -1;
+            result.recordGame(engine, rounds, winner);
+        }
+        return result;
+    }
+
+    private final class Playouts extends RecursiveTask<SimulationResult> {
+        private final long games;
+        private final SplittableRandom random;
+
+        Playouts(long games, SplittableRandom random) {
+            this.games = games;
+            this.random = random;
+        }
+
+        @Override
+        protected SimulationResult compute() {
+            if (games <= GAMES_PER_BATCH) {
+                return play(games, random);
+            }
+            final long half = games / 2;
+            final Playouts right = new Playouts(games - half, random.split());
+            right.fork();
+            final SimulationResult left = new Playouts(half, random).compute();
+            return left.merge(right.join());
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.simulation;
+
+import org.example.RoundEngine;
+
+// Common bot strategies
+public final class Strategies {
+    private Strategies() {
+    }
+
+    public static Strategy constant(int guess) {
+        if (guess < RoundEngine.MIN_GUESS || guess > RoundEngine.MAX_GUESS) {
+            throw new IllegalArgumentException("Guess must be between 0 and 100");
+        }
+        return (view, random) -> guess;
+    }
+
+    public static Strategy uniformRandom() {
+        return (view, random) -> random.nextInt(RoundEngine.MAX_GUESS + 1);
+    }
+
+    // Guesses a fixed fraction of the previous round's target, or of 50 in the first round
+    public static Strategy fixedRatio(double ratio) {
+        return (view, random) -> {
+            final float previous = view.getPreviousTarget();
+            return clamp(Math.round(ratio * (Float.isNaN(previous) ? 50 : previous)));
+        };
+    }
+
+    // A level-k reasoner assumes everyone else reasons at level k - 1, with level 0 guessing
+    // 50, and so guesses 50 * 0.8^k
+    public static Strategy levelK(int k) {
+        final int guess = clamp(Math.round(50 * Math.pow(0.8, k)));
+        return (view, random) -> guess;
+    }
+
+    private static int clamp(long guess) {
+        return (int) Math.max(RoundEngine.MIN_GUESS, Math.min(RoundEngine.MAX_GUESS, guess));
+    }
+}
@@ -0,0 +1,9 @@
+package org.example.simulation;
+
+import java.util.SplittableRandom;
+
+// Picks a bot's guess for the current round. Strategies are shared by every playout on
+// every thread, so they must be stateless; all randomness has to come from the given random.
+public interface Strategy {
+    int guess(RoundView view, SplittableRandom random);
+}
@@ -0,0 +1,12 @@
+package org.example.tournament;
+
+import org.example.BeautyContest;
+
+// Submits the guesses of one contest before its round is evaluated. A driver is called
+// from the worker that owns the contest, so it must only touch that contest.
+public interface RoundDriver {
+    RoundDriver NONE = (index, contest) -> {
+    };
+
+    void submitGuesses(int index, BeautyContest contest);
+}
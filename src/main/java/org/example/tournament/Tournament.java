@@ -0,0 +1,103 @@
+package org.example.tournament;
+
+import org.example.BeautyContest;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Owns a large number of independent contests and evaluates their rounds in parallel on a
+// fork-join pool. Contests are split into contiguous batches so that a task evaluates many
+// small contests instead of paying the scheduling overhead for each one. A contest is only
+// ever touched by the task that owns its batch, so results do not depend on the parallelism.
+public class Tournament {
+    private final BeautyContest[] contests;
+    private final ForkJoinPool pool;
+    private final int batchSize;
+    private TournamentStats totals = new TournamentStats(0, 0, 0);
+
+    public Tournament(List<BeautyContest> contests) {
+        this(contests, ForkJoinPool.commonPool());
+    }
+
+    public Tournament(List<BeautyContest> contests, ForkJoinPool pool) {
+        // Aim for a few batches per worker so stragglers can be stolen
+        this(contests, pool, Math.max(1, contests.size() / (pool.getParallelism() * 8)));
+    }
+
+    public Tournament(List<BeautyContest> contests, ForkJoinPool pool, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        this.contests = contests.toArray(new BeautyContest[0]);
+        this.pool = pool;
+        this.batchSize = batchSize;
+    }
+
+    public int size() {
+        return contests.length;
+    }
+
+    public BeautyContest getContest(int index) {
+        return contests[index];
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    // Evaluates the current round of every contest that is not finished
+    public TournamentStats evaluateRound() {
+        return playRounds(1, RoundDriver.NONE);
+    }
+
+    // Plays up to the given number of rounds in every contest, stopping early in contests
+    // that finish. The driver submits each round's guesses right before it is evaluated.
+    public synchronized TournamentStats playRounds(int rounds, RoundDriver driver) {
+        final long start = System.nanoTime();
+        final long played = pool.invoke(new Batch(0, contests.length, rounds, driver));
+        final TournamentStats stats = new TournamentStats(contests.length, played, System.nanoTime() - start);
+        totals = totals.plus(stats);
+        return stats;
+    }
+
+    // Accumulated throughput of every run so far
+    public synchronized TournamentStats getTotals() {
+        return totals;
+    }
+
+    private final class Batch extends RecursiveTask<Long> {
+        private final int from;
+        private final int to;
+        private final int rounds;
+        private final RoundDriver driver;
+
+        Batch(int from, int to, int rounds, RoundDriver driver) {
+            this.from = from;
+            this.to = to;
+            this.rounds = rounds;
+            this.driver = driver;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from > batchSize) {
+                final int middle = (from + to) >>> 1;
+                final Batch right = new Batch(middle, to, rounds, driver);
+                right.fork();
+                final long left = new Batch(from, middle, rounds, driver).compute();
+                return left + right.join();
+            }
+            long played = 0;
+            for (int index = from; index < to; index++) {
+                final BeautyContest contest = contests[index];
+                for (int round = 0; round < rounds && !contest.finished(); round++) {
+                    driver.submitGuesses(index, contest);
+                    contest.evaluateRound();
+                    played++;
+                }
+            }
+            return played;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.tournament;
+
+// Throughput of one or more tournament runs
+public final class TournamentStats {
+    private final long contests;
+    private final long rounds;
+    private final long elapsedNanos;
+
+    public TournamentStats(long contests, long rounds, long elapsedNanos) {
+        this.contests = contests;
+        this.rounds = rounds;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getContests() {
+        return contests;
+    }
+
+    public long getRounds() {
+        return rounds;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double contestsPerSecond() {
+        return perSecond(contests);
+    }
+
+    public double roundsPerSecond() {
+        return perSecond(rounds);
+    }
+
+    private double perSecond(long count) {
+        return elapsedNanos == 0 ? 0 : count * 1e9 / elapsedNanos;
+    }
+
+    public TournamentStats plus(TournamentStats other) {
+        return new TournamentStats(contests + other.contests, rounds + other.rounds, elapsedNanos + other.elapsedNanos);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d contests, %d rounds in %.3f ms (%.0f contests/s, %.0f rounds/s)",
+                contests, rounds, elapsedNanos / 1e6, contestsPerSecond(), roundsPerSecond());
+    }
+}
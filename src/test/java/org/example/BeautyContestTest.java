@@ -400,4 +400,89 @@ class BeautyContestTest {
         assertEquals(8, contest.getContestantScore(king));
         assertEquals(8, contest.getContestantScore(lady));
     }
-}
\ No newline at end of file
+
+    @Test
+    void contestantsCanGuessAgainInTheNextRound() {
+        Contestant loser = new Contestant("Loser");
+        Contestant winner = new Contestant("Winner");
+        BeautyContest contest = new BeautyContest(loser, winner);
+
+        contest.submitGuess(loser, 0);
+        contest.submitGuess(winner, 100);
+        contest.evaluateRound();
+        assertEquals(2, contest.getRound());
+
+        contest.submitGuess(loser, 100);
+        contest.submitGuess(winner, 0);
+        contest.evaluateRound();
+
+        assertEquals(9, contest.getContestantScore(loser));
+        assertEquals(9, contest.getContestantScore(winner));
+    }
+
+    @Test
+    void eliminatedContestantCannotSubmitGuess() {
+        Contestant loser = new Contestant("Loser");
+        Contestant winner = new Contestant("Winner");
+        BeautyContest contest = new BeautyContest(loser, winner);
+        for (int round = 0; round < 10; round++) {
+            contest.submitGuess(loser, 0);
+            contest.submitGuess(winner, 100);
+            contest.evaluateRound();
+        }
+
+        assertEquals(0, contest.getContestantScore(loser));
+        Throwable eliminatedThrowable = assertThrows(
+                IllegalArgumentException.class,
+                () -> contest.submitGuess(loser, 50),
+                "submitGuess failed to throw an exception when receiving a guess from an eliminated contestant");
+        assertEquals("Contestant has been eliminated", eliminatedThrowable.getMessage());
+    }
+
+    @Test
+    void recordsRoundHistory() {
+        Contestant guessesFour = new Contestant("Blondie");
+        Contestant guessesFifty = new Contestant("King of Diamonds");
+        Contestant guessesExactMatch = new Contestant("Lady");
+        BeautyContest contest = new BeautyContest(guessesFour, guessesFifty, guessesExactMatch);
+
+        contest.submitGuess(guessesFour, 4);
+        contest.submitGuess(guessesFifty, 50);
+        contest.submitGuess(guessesExactMatch, 19);
+        contest.evaluateRound();
+
+        RoundHistory history = contest.getRoundHistory();
+        assertEquals(1, history.latestRound());
+        assertEquals(19.467f, history.getTarget(1), 0.001f);
+        assertEquals(2, history.getPenalty(1));
+        assertEquals(2, history.getLoserCount(1));
+        assertEquals(guessesFour, contest.getContestant(history.getLoser(1, 0)));
+        assertEquals(guessesFifty, contest.getContestant(history.getLoser(1, 1)));
+    }
+
+    @Test
+    void batchSubmissionReportsRejectionCodes() {
+        Contestant blondie = new Contestant("Blondie");
+        Contestant king = new Contestant("King of Diamonds");
+        Contestant lady = new Contestant("Lady");
+        BeautyContest contest = new BeautyContest(blondie, king, lady);
+
+        int[] pairs = {0, 23, 1, 101, 0, 5, 7, 50, 1, 1, 2, 62};
+        byte[] results = new byte[6];
+        assertEquals(3, contest.submitGuesses(pairs, 0, 6, results));
+
+        assertArrayEquals(new byte[]{
+                GuessRejection.ACCEPTED,
+                GuessRejection.OUT_OF_BOUNDS,
+                GuessRejection.ALREADY_SUBMITTED,
+                GuessRejection.NOT_PARTICIPATING,
+                GuessRejection.ACCEPTED,
+                GuessRejection.ACCEPTED}, results);
+        assertEquals(3, contest.getGuessCount());
+
+        contest.evaluateRound();
+        assertEquals(10, contest.getContestantScore(blondie));
+        assertEquals(8, contest.getContestantScore(king));
+        assertEquals(8, contest.getContestantScore(lady));
+    }
+}
@@ -0,0 +1,152 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentBeautyContestTest {
+    private static final int CONTESTANTS = 5000;
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS_PER_CONTESTANT = 4;
+
+    private static Contestant[] contestants() {
+        Contestant[] contestants = new Contestant[CONTESTANTS];
+        for (int i = 0; i < CONTESTANTS; i++) {
+            contestants[i] = new Contestant("Contestant " + i);
+        }
+        return contestants;
+    }
+
+    private static int guessFor(int contestant, int attempt) {
+        return (contestant * 7 + attempt * 13) % 101;
+    }
+
+    // Rethrows assertion failures from the workers, which would otherwise stay in their futures
+    private static void awaitWorkers(List<Future<?>> workers) throws Exception {
+        for (Future<?> worker : workers) {
+            try {
+                worker.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw e;
+            }
+        }
+    }
+
+    @Test
+    void acceptsExactlyOneGuessPerContestantUnderContention() throws Exception {
+        Contestant[] contestants = contestants();
+        ConcurrentBeautyContest contest = new ConcurrentBeautyContest(contestants);
+        AtomicIntegerArray accepted = new AtomicIntegerArray(CONTESTANTS);
+        for (int i = 0; i < CONTESTANTS; i++) {
+            accepted.set(i, -1);
+        }
+        AtomicInteger acceptedCount = new AtomicInteger();
+        AtomicInteger rejectedCount = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            final int thread = t;
+            workers.add(pool.submit(() -> {
+                start.await();
+                // Every contestant is raced by ATTEMPTS_PER_CONTESTANT threads with different guesses
+                for (int i = 0; i < CONTESTANTS; i++) {
+                    int attempt = (i + thread) % THREADS;
+                    if (attempt >= ATTEMPTS_PER_CONTESTANT) {
+                        continue;
+                    }
+                    try {
+                        contest.submitGuess(contestants[i], guessFor(i, attempt));
+                        assertTrue(accepted.compareAndSet(i, -1, guessFor(i, attempt)), "second guess accepted");
+                        acceptedCount.incrementAndGet();
+                    } catch (IllegalArgumentException e) {
+                        assertEquals("Contestant has already submitted a guess", e.getMessage());
+                        rejectedCount.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+        awaitWorkers(workers);
+
+        assertEquals(CONTESTANTS, acceptedCount.get());
+        assertEquals(CONTESTANTS * (ATTEMPTS_PER_CONTESTANT - 1), rejectedCount.get());
+        assertEquals(CONTESTANTS, contest.evaluateRound());
+
+        // The round must be scored from exactly the guesses that were accepted
+        ReferenceContest reference = new ReferenceContest(CONTESTANTS);
+        for (int i = 0; i < CONTESTANTS; i++) {
+            reference.submitGuess(i, accepted.get(i));
+        }
+        reference.evaluateRound();
+        for (int i = 0; i < CONTESTANTS; i++) {
+            assertEquals(reference.scores[i], contest.getContestantScore(contestants[i]));
+        }
+    }
+
+    @Test
+    void closingTheRoundSnapshotsEveryAcceptedGuess() throws Exception {
+        Contestant[] contestants = contestants();
+        ConcurrentBeautyContest contest = new ConcurrentBeautyContest(contestants);
+        AtomicInteger acceptedCount = new AtomicInteger();
+        AtomicInteger closedCount = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            final int thread = t;
+            workers.add(pool.submit(() -> {
+                start.await();
+                for (int i = thread; i < CONTESTANTS; i += THREADS) {
+                    try {
+                        contest.submitGuess(contestants[i], guessFor(i, 0));
+                        acceptedCount.incrementAndGet();
+                    } catch (IllegalStateException e) {
+                        assertEquals("Round is closed", e.getMessage());
+                        closedCount.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        int evaluated = contest.evaluateRound();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+        awaitWorkers(workers);
+
+        // Submissions that raced the sweep were either part of the round, told it was closed,
+        // or landed in the next round once the slots were reopened
+        int lateSubmissions = acceptedCount.get() - evaluated;
+        assertEquals(CONTESTANTS, acceptedCount.get() + closedCount.get());
+        assertEquals(lateSubmissions, contest.evaluateRound());
+    }
+
+    @Test
+    void keepsSingleThreadedValidationMessages() {
+        Contestant c = new Contestant("John");
+        ConcurrentBeautyContest contest = new ConcurrentBeautyContest(c);
+
+        Throwable outOfBounds = assertThrows(IllegalArgumentException.class, () -> contest.submitGuess(c, 101));
+        assertEquals("Guess must be between 0 and 100", outOfBounds.getMessage());
+        Throwable outsider = assertThrows(IllegalArgumentException.class,
+                () -> contest.submitGuess(new Contestant("Jane"), 50));
+        assertEquals("Contestant is not participating in this contest", outsider.getMessage());
+        assertEquals(-1, contest.getContestantScore(new Contestant("Jane")));
+        assertEquals(10, contest.getContestantScore(c));
+    }
+}
@@ -0,0 +1,90 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContestantRegistryTest {
+
+    @Test
+    void internReturnsTheSameIdForTheSameName() {
+        ContestantRegistry registry = new ContestantRegistry();
+        int alice = registry.intern("Alice");
+        int bob = registry.intern("Bob");
+
+        assertEquals(0, alice);
+        assertEquals(1, bob);
+        assertEquals(alice, registry.intern("Alice"));
+        assertEquals(bob, registry.find("Bob"));
+        assertEquals(-1, registry.find("Carol"));
+        assertEquals(2, registry.size());
+    }
+
+    @Test
+    void storesNamesAndHashes() {
+        ContestantRegistry registry = new ContestantRegistry();
+        int id = registry.intern("King of Diamonds ♦");
+
+        assertEquals("King of Diamonds ♦", registry.getName(id));
+        assertEquals("King of Diamonds ♦".hashCode(), registry.getHash(id));
+        assertThrows(IllegalArgumentException.class, () -> registry.getName(1));
+    }
+
+    @Test
+    void growsToManyContestants() {
+        ContestantRegistry registry = new ContestantRegistry();
+        for (int i = 0; i < 200_000; i++) {
+            assertEquals(i, registry.intern("Contestant " + i));
+        }
+        for (int i = 0; i < 200_000; i += 997) {
+            assertEquals(i, registry.find("Contestant " + i));
+            assertEquals("Contestant " + i, registry.getName(i));
+        }
+        assertEquals(200_000, registry.size());
+    }
+
+    @Test
+    void contestantsWithTheSameNameAreEqual() {
+        Contestant first = new Contestant("Chishiya");
+        Contestant second = new Contestant("Chishiya");
+
+        assertEquals(first, second);
+        assertEquals(first.getId(), second.getId());
+        assertEquals("Chishiya".hashCode(), first.hashCode());
+        assertEquals("Chishiya", first.getName());
+        assertNotEquals(first, new Contestant("Arisu"));
+    }
+
+    @Test
+    void readsWhileAnotherThreadInterns() throws Exception {
+        ContestantRegistry registry = new ContestantRegistry();
+        final int names = 100_000;
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < names; i++) {
+                registry.intern("Contestant " + i);
+            }
+        });
+        writer.start();
+        for (int i = 0; i < names; i++) {
+            final String name = "Contestant " + i;
+            final int id = registry.intern(name);
+            assertEquals(name, registry.getName(id));
+            assertEquals(id, registry.find(name));
+        }
+        writer.join();
+        assertEquals(names, registry.size());
+    }
+
+    @Test
+    void registriesAreScoped() {
+        ContestantRegistry audit = new ContestantRegistry();
+        Contestant scoped = new Contestant(audit, "Kuina");
+        Contestant global = new Contestant("Kuina");
+
+        assertSame(audit, scoped.getRegistry());
+        assertEquals("Kuina", scoped.getName());
+        assertNotEquals(global, scoped);
+        assertEquals(-1, new BeautyContest(global).indexOf(scoped));
+        assertThrows(IllegalArgumentException.class, () -> new BeautyContest(global, scoped));
+    }
+}
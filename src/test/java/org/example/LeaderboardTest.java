@@ -0,0 +1,145 @@
+package org.example;
+
+import org.example.rules.RuleSet;
+import org.example.rules.Rules;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaderboardTest {
+
+    private static void assertMatchesScores(RoundEngine engine, Leaderboard.Snapshot snapshot, int topCapacity) {
+        final int contestants = engine.size();
+        for (int id = 0; id < contestants; id++) {
+            assertEquals(engine.getScore(id), snapshot.getScore(id));
+            int ahead = 0;
+            for (int other = 0; other < contestants; other++) {
+                if (engine.getScore(other) > engine.getScore(id)) {
+                    ahead++;
+                }
+            }
+            assertEquals(ahead + 1, snapshot.getRank(id));
+        }
+        int[] top = snapshot.getTop(topCapacity);
+        assertEquals(Math.min(topCapacity, contestants), top.length);
+        for (int i = 0; i < top.length; i++) {
+            // Every contestant in the top list ranks at or above its position
+            assertTrue(snapshot.getRank(top[i]) <= i + 1);
+            if (i > 0) {
+                assertTrue(engine.getScore(top[i - 1]) >= engine.getScore(top[i]));
+            }
+        }
+    }
+
+    @Test
+    void tracksScoresRanksAndTopContestants() {
+        Random random = new Random(11);
+        for (int trial = 0; trial < 300; trial++) {
+            int contestants = 1 + random.nextInt(40);
+            int topCapacity = random.nextInt(10);
+            RoundEngine engine = new RoundEngine(contestants);
+            Leaderboard leaderboard = new Leaderboard(contestants, topCapacity);
+            engine.setLeaderboard(leaderboard);
+            assertMatchesScores(engine, leaderboard.getSnapshot(), topCapacity);
+            while (!engine.finished() && engine.getRound() <= 30) {
+                for (int id = engine.nextAlive(0); id >= 0; id = engine.nextAlive(id + 1)) {
+                    engine.submitGuess(id, random.nextBoolean() ? random.nextInt(6) : random.nextInt(101));
+                }
+                engine.evaluateRound();
+                Leaderboard.Snapshot snapshot = leaderboard.getSnapshot();
+                assertEquals(engine.getRound(), snapshot.getRound());
+                assertMatchesScores(engine, snapshot, topCapacity);
+            }
+        }
+    }
+
+    @Test
+    void snapshotsAreNotChangedByLaterRounds() {
+        Contestant[] players = {new Contestant("Leader"), new Contestant("Runner-up"), new Contestant("Last")};
+        BeautyContest contest = new BeautyContest(players);
+        Leaderboard leaderboard = contest.getLeaderboard(3);
+        Leaderboard.Snapshot start = leaderboard.getSnapshot();
+
+        contest.submitGuess(players[0], 50);
+        contest.submitGuess(players[1], 20);
+        contest.submitGuess(players[2], 90);
+        contest.evaluateRound();
+        Leaderboard.Snapshot afterRound = leaderboard.getSnapshot();
+
+        assertEquals(1, start.getRank(2));
+        assertEquals(3, start.getCount(RoundEngine.STARTING_SCORE));
+        assertEquals(1, afterRound.getRank(0));
+        assertEquals(2, afterRound.getRank(1));
+        assertEquals(2, afterRound.getRank(2));
+        assertEquals(2, afterRound.getCount(RoundEngine.STARTING_SCORE - 1));
+        assertArrayEquals(new int[]{0, 1}, afterRound.getTop(2));
+
+        contest.reset();
+        assertEquals(9, afterRound.getScore(1));
+        assertEquals(1, leaderboard.getSnapshot().getRank(1));
+    }
+
+    @Test
+    void clampsScoresOfRulesetsWithLargerPenalties() {
+        RuleSet harsh = new RuleSet(4, 5, 19, 3, Rules.closestGuessWins());
+        Contestant[] players = {new Contestant("Low"), new Contestant("Middle"), new Contestant("High")};
+        BeautyContest contest = new BeautyContest(harsh, players);
+        Leaderboard leaderboard = contest.getLeaderboard(2);
+        assertEquals(19, leaderboard.getSnapshot().getScore(2));
+
+        // 0 and 100 lose every round against a target of 0.8 * 130 / 3, until they are on -2
+        while (contest.getScore(0) > 0) {
+            contest.submitGuess(players[0], 0);
+            contest.submitGuess(players[1], 100);
+            contest.submitGuess(players[2], 30);
+            contest.evaluateRound();
+        }
+        assertEquals(-2, contest.getScore(0));
+        assertEquals(-2, contest.getScore(1));
+        assertEquals(19, contest.getScore(2));
+        Leaderboard.Snapshot snapshot = leaderboard.getSnapshot();
+        assertEquals(Leaderboard.MIN_SCORE, snapshot.getScore(0));
+        assertEquals(1, snapshot.getRank(2));
+        assertEquals(2, snapshot.getRank(0));
+        assertEquals(2, snapshot.getCount(Leaderboard.MIN_SCORE));
+        assertArrayEquals(new int[]{2, 0}, snapshot.getTop(2));
+    }
+
+    @Test
+    void rejectsStartingScoresThatDoNotFitAByte() {
+        RuleSet generous = new RuleSet(4, 5, 1000, 1, Rules.closestGuessWins());
+        BeautyContest contest = new BeautyContest(generous, new Contestant("A"));
+        assertThrows(IllegalStateException.class, () -> contest.getLeaderboard(1));
+    }
+
+    @Test
+    void olderSnapshotsOnlyAnswerForContestantsThatChangedOnceSince() {
+        Contestant[] players = {new Contestant("Steady"), new Contestant("Falling"), new Contestant("Also falling")};
+        BeautyContest contest = new BeautyContest(players);
+        Leaderboard leaderboard = contest.getLeaderboard(3);
+        Leaderboard.Snapshot start = leaderboard.getSnapshot();
+        for (int round = 0; round < 2; round++) {
+            contest.submitGuess(players[0], 40);
+            contest.submitGuess(players[1], 80);
+            contest.submitGuess(players[2], 100);
+            contest.evaluateRound();
+        }
+
+        assertEquals(RoundEngine.STARTING_SCORE, start.getScore(0));
+        assertEquals(1, start.getRank(0));
+        assertThrows(IllegalStateException.class, () -> start.getScore(1));
+        assertEquals(RoundEngine.STARTING_SCORE - 2, leaderboard.getSnapshot().getScore(1));
+    }
+
+    @Test
+    void rejectsAnotherTopCapacity() {
+        BeautyContest contest = new BeautyContest(new Contestant("Alone"), new Contestant("Together"));
+        Leaderboard leaderboard = contest.getLeaderboard(2);
+        assertSame(leaderboard, contest.getLeaderboard(2));
+        // Capped at the number of contestants either way
+        assertSame(leaderboard, contest.getLeaderboard(5));
+        assertThrows(IllegalArgumentException.class, () -> contest.getLeaderboard(1));
+    }
+}
@@ -0,0 +1,99 @@
+package org.example;
+
+import org.example.metrics.ContestMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapRoundEngineTest {
+
+    private static void playAgainstHeapEngine(TargetMode targetMode, long seed) {
+        Random random = new Random(seed);
+        for (int trial = 0; trial < 1000; trial++) {
+            int contestants = 1 + random.nextInt(trial % 10 == 0 ? 200 : 8);
+            RoundEngine heap = new RoundEngine(contestants);
+            OffHeapRoundEngine offHeap = new OffHeapRoundEngine(contestants);
+            heap.setTargetMode(targetMode);
+            offHeap.setTargetMode(targetMode);
+            while (!heap.finished() && heap.getRound() <= 40) {
+                for (int id = heap.nextAlive(0); id >= 0; id = heap.nextAlive(id + 1)) {
+                    if (random.nextInt(10) == 0) {
+                        continue;
+                    }
+                    int guess = random.nextBoolean() ? random.nextInt(6) : random.nextInt(101);
+                    if (random.nextInt(5) == 0) {
+                        offHeap.submitGuess(id, random.nextInt(101));
+                    }
+                    heap.submitGuess(id, guess);
+                    offHeap.submitGuess(id, guess);
+                }
+                assertEquals(heap.getGuessCount(), offHeap.getGuessCount());
+                final int round = heap.getRound();
+                heap.evaluateRound();
+                offHeap.evaluateRound();
+
+                assertEquals(heap.getHistory().getTarget(round), offHeap.getHistory().getTarget(round));
+                assertEquals(heap.getHistory().getLoserCount(round), offHeap.getHistory().getLoserCount(round));
+                for (int id = 0; id < contestants; id++) {
+                    assertEquals(heap.getScore(id), offHeap.getScore(id), "trial " + trial + ", contestant " + id);
+                    assertFalse(offHeap.hasGuessed(id));
+                }
+                assertEquals(heap.getRemainingContestants(), offHeap.getRemainingContestants());
+            }
+        }
+    }
+
+    @Test
+    void matchesHeapEngineWithFloatTargets() {
+        playAgainstHeapEngine(TargetMode.FLOAT, 17);
+    }
+
+    @Test
+    void matchesHeapEngineWithExactTargets() {
+        playAgainstHeapEngine(TargetMode.EXACT, 19);
+    }
+
+    @Test
+    void resetRestoresStartingScoresAndDiscardsGuesses() {
+        OffHeapRoundEngine engine = new OffHeapRoundEngine(2);
+        engine.submitGuess(0, 0);
+        engine.submitGuess(1, 100);
+        engine.evaluateRound();
+        engine.submitGuess(0, 7);
+        assertEquals(9, engine.getScore(0));
+
+        engine.reset();
+        assertEquals(RoundEngine.STARTING_SCORE, engine.getScore(0));
+        assertFalse(engine.hasGuessed(0));
+        assertEquals(0, engine.getGuessCount());
+        assertEquals(2, engine.getRemainingContestants());
+    }
+
+    @Test
+    void largePenaltiesDoNotWrapScoresAround() {
+        OffHeapRoundEngine engine = new OffHeapRoundEngine(2);
+        boolean[] losing = new boolean[RoundEngine.MAX_GUESS + 1];
+        losing[0] = true;
+        engine.submitGuess(0, 0);
+        engine.submitGuess(1, 100);
+        engine.closeRound(new RoundDecision(losing, 0, 1 << 16, 0));
+
+        assertEquals(Short.MIN_VALUE, engine.getScore(0));
+        assertEquals(1, engine.getRemainingContestants());
+        assertEquals(RoundEngine.STARTING_SCORE, engine.getScore(1));
+    }
+
+    @Test
+    void reportsMemoryPerContestant() {
+        OffHeapRoundEngine engine = new OffHeapRoundEngine(1 << 20);
+        assertEquals(3.125, engine.getBytesPerContestant());
+
+        ContestMetrics metrics = new ContestMetrics();
+        assertTrue(Double.isNaN(metrics.getStorageBytesPerContestant()));
+        metrics.setStorageGauge(engine::getMemoryUsage, engine::size);
+        assertEquals(3.125 * (1 << 20), metrics.getStorageBytes());
+        assertEquals(3.125, metrics.getStorageBytesPerContestant());
+    }
+}
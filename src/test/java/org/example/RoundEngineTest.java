@@ -0,0 +1,261 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoundEngineTest {
+
+    @Test
+    void matchesReferenceRulesForRandomRounds() {
+        Random random = new Random(42);
+        for (int trial = 0; trial < 5000; trial++) {
+            int contestants = 1 + random.nextInt(8);
+            RoundEngine engine = new RoundEngine(contestants);
+            ReferenceContest reference = new ReferenceContest(contestants);
+            for (int id = 0; id < contestants; id++) {
+                // Small ranges make duplicates, exact matches and 0/100 pairs likely
+                int guess = random.nextBoolean() ? random.nextInt(6) : random.nextInt(101);
+                if (random.nextInt(10) == 0) {
+                    guess = 100;
+                }
+                engine.submitGuess(id, guess);
+                reference.submitGuess(id, guess);
+            }
+            engine.evaluateRound();
+            reference.evaluateRound();
+            for (int id = 0; id < contestants; id++) {
+                assertEquals(reference.scores[id], engine.getScore(id), "trial " + trial + ", contestant " + id);
+            }
+        }
+    }
+
+    @Test
+    void contestantsWithoutGuessAreNotPenalized() {
+        RoundEngine engine = new RoundEngine(3);
+        engine.submitGuess(0, 10);
+        engine.submitGuess(1, 50);
+        engine.evaluateRound();
+
+        assertEquals(10, engine.getScore(0));
+        assertEquals(9, engine.getScore(1));
+        assertEquals(10, engine.getScore(2));
+    }
+
+    @Test
+    void finishedOnlyWhenNoScoreIsPositive() {
+        RoundEngine engine = new RoundEngine(0);
+        assertTrue(engine.finished());
+        assertFalse(new RoundEngine(1).finished());
+    }
+
+    @Test
+    void evaluatingOpensANewRound() {
+        RoundEngine engine = new RoundEngine(2);
+        engine.submitGuess(0, 10);
+        assertTrue(engine.hasGuessed(0));
+        engine.evaluateRound();
+
+        assertEquals(2, engine.getRound());
+        assertFalse(engine.hasGuessed(0));
+        assertFalse(engine.hasGuessed(1));
+    }
+
+    @Test
+    void staleGuessesDoNotSkewLaterRounds() {
+        RoundEngine engine = new RoundEngine(3);
+        engine.submitGuess(0, 100);
+        engine.submitGuess(1, 0);
+        engine.submitGuess(2, 5);
+        engine.evaluateRound();
+
+        // Only contestant 2 guesses; a leftover 100 would otherwise move the target away from 5
+        engine.submitGuess(2, 5);
+        engine.evaluateRound();
+        assertEquals(0, engine.getHistory().getLoserCount(2));
+        assertEquals(4f, engine.getHistory().getTarget(2));
+    }
+
+    @Test
+    void historyKeepsOnlyTheMostRecentRounds() {
+        RoundEngine engine = new RoundEngine(2, 3);
+        for (int round = 1; round <= 5; round++) {
+            engine.submitGuess(0, round);
+            engine.submitGuess(1, 50);
+            engine.evaluateRound();
+        }
+
+        RoundHistory history = engine.getHistory();
+        assertEquals(5, history.latestRound());
+        assertEquals(3, history.oldestRound());
+        assertFalse(history.contains(2));
+        assertThrows(IllegalArgumentException.class, () -> history.getTarget(2));
+        for (int round = 3; round <= 5; round++) {
+            assertEquals(1, history.getLoserCount(round));
+            assertEquals(1, history.getLoser(round, 0));
+        }
+    }
+
+    @Test
+    void resetRestoresStartingScoresAndDiscardsGuesses() {
+        RoundEngine engine = new RoundEngine(2);
+        engine.submitGuess(0, 0);
+        engine.submitGuess(1, 100);
+        engine.evaluateRound();
+        engine.submitGuess(0, 0);
+        engine.reset();
+
+        assertEquals(RoundEngine.STARTING_SCORE, engine.getScore(0));
+        assertFalse(engine.hasGuessed(0));
+        assertEquals(2, engine.getRound());
+    }
+
+    @Test
+    void tracksRemainingContestantsAsScoresReachZero() {
+        RoundEngine engine = new RoundEngine(130);
+        assertEquals(130, engine.getRemainingContestants());
+        for (int round = 0; round < 10; round++) {
+            // Contestants 1 and 129 guess 100 while the rest guess 0, so only they lose
+            for (int id = engine.nextAlive(0); id >= 0; id = engine.nextAlive(id + 1)) {
+                engine.submitGuess(id, id == 1 || id == 129 ? 100 : 0);
+            }
+            engine.evaluateRound();
+        }
+
+        assertEquals(128, engine.getRemainingContestants());
+        assertTrue(engine.isEliminated(1));
+        assertEquals(2, engine.nextAlive(1));
+        assertEquals(128, engine.nextAlive(65 + 63));
+        assertEquals(-1, engine.nextAlive(129));
+        assertFalse(engine.finished());
+
+        engine.reset();
+        assertEquals(130, engine.getRemainingContestants());
+        assertEquals(129, engine.nextAlive(129));
+    }
+
+    @Test
+    void resubmittedGuessesReplaceTheEarlierOneInTheRoundStatistics() {
+        Random random = new Random(13);
+        for (int trial = 0; trial < 2000; trial++) {
+            int contestants = 1 + random.nextInt(6);
+            RoundEngine engine = new RoundEngine(contestants);
+            ReferenceContest reference = new ReferenceContest(contestants);
+            for (int round = 0; round < 3 && !engine.finished(); round++) {
+                for (int id = 0; id < contestants; id++) {
+                    if (engine.isEliminated(id)) {
+                        continue;
+                    }
+                    // The first guess overlaps the final one often, so it would create or
+                    // break up duplicates if it were still counted
+                    engine.submitGuess(id, random.nextInt(4));
+                    int guess = random.nextInt(4);
+                    engine.submitGuess(id, guess);
+                    reference.submitGuess(id, guess);
+                }
+                engine.evaluateRound();
+                reference.evaluateRound();
+                for (int id = 0; id < contestants; id++) {
+                    assertEquals(reference.scores[id], engine.getScore(id), "trial " + trial + ", contestant " + id);
+                }
+            }
+        }
+    }
+
+    @Test
+    void restoreRebuildsTheRoundStatistics() {
+        RoundEngine engine = new RoundEngine(3);
+        engine.submitGuess(0, 40);
+        engine.submitGuess(1, 40);
+        engine.restore(5, new int[]{3, 0, 3}, new int[]{50, 40, 19});
+
+        assertEquals(2, engine.getGuessCount());
+        assertFalse(engine.hasGuessed(1));
+        engine.evaluateRound();
+        assertEquals(2, engine.getScore(0));
+        assertEquals(3, engine.getScore(2));
+        assertEquals(27.6f, engine.getHistory().getTarget(5));
+    }
+
+    @Test
+    void exactTargetsAgreeWithFloatTargetsInSmallLobbies() {
+        Random random = new Random(7);
+        for (int trial = 0; trial < 5000; trial++) {
+            int contestants = 1 + random.nextInt(8);
+            RoundEngine engine = new RoundEngine(contestants);
+            engine.setTargetMode(TargetMode.EXACT);
+            ReferenceContest reference = new ReferenceContest(contestants);
+            for (int id = 0; id < contestants; id++) {
+                int guess = random.nextBoolean() ? random.nextInt(6) : random.nextInt(101);
+                engine.submitGuess(id, guess);
+                reference.submitGuess(id, guess);
+            }
+            engine.evaluateRound();
+            reference.evaluateRound();
+            for (int id = 0; id < contestants; id++) {
+                assertEquals(reference.scores[id], engine.getScore(id), "trial " + trial + ", contestant " + id);
+            }
+        }
+    }
+
+    @Test
+    void exactTargetsKeepTiesThatFloatRoundingBreaks() {
+        // 168856 guesses summing to 16780065 put the target at exactly 79.5, but the float
+        // target comes out as 79.49999, so only the exact mode sees 79 and 80 tie
+        final int contestants = 168856;
+        RoundEngine floating = new RoundEngine(contestants);
+        RoundEngine exact = new RoundEngine(contestants);
+        exact.setTargetMode(TargetMode.EXACT);
+        for (RoundEngine engine : new RoundEngine[]{floating, exact}) {
+            engine.submitGuess(0, 79);
+            engine.submitGuess(1, 80);
+            engine.submitGuess(2, 6);
+            for (int id = 3; id < contestants; id++) {
+                engine.submitGuess(id, id < 3 + 1054 ? 0 : 100);
+            }
+            engine.evaluateRound();
+        }
+
+        assertEquals(10, floating.getScore(0));
+        assertEquals(9, floating.getScore(1));
+        assertEquals(10, exact.getScore(0));
+        assertEquals(10, exact.getScore(1));
+        assertEquals(79.5f, exact.getHistory().getTarget(1));
+    }
+
+    @Test
+    void evaluationKernelsProduceTheSameRounds() {
+        Random random = new Random(29);
+        for (int trial = 0; trial < 300; trial++) {
+            int contestants = 1 + random.nextInt(trial % 10 == 0 ? 5000 : 300);
+            RoundEngine scalar = new RoundEngine(contestants);
+            RoundEngine vector = new RoundEngine(contestants);
+            scalar.setEvaluationKernel(EvaluationKernel.SCALAR);
+            vector.setEvaluationKernel(EvaluationKernel.VECTOR);
+            assertEquals(EvaluationKernel.isVectorAvailable() ? EvaluationKernel.VECTOR : EvaluationKernel.SCALAR,
+                    vector.getEvaluationKernel());
+            while (!scalar.finished() && scalar.getRound() <= 20) {
+                for (int id = scalar.nextAlive(0); id >= 0; id = scalar.nextAlive(id + 1)) {
+                    if (random.nextInt(10) != 0) {
+                        int guess = random.nextBoolean() ? random.nextInt(6) : random.nextInt(101);
+                        scalar.submitGuess(id, guess);
+                        vector.submitGuess(id, guess);
+                    }
+                }
+                final int round = scalar.getRound();
+                scalar.evaluateRound();
+                vector.evaluateRound();
+                assertEquals(scalar.getHistory().getLoserCount(round), vector.getHistory().getLoserCount(round));
+                for (int i = 0; i < scalar.getHistory().getLoserCount(round); i++) {
+                    assertEquals(scalar.getHistory().getLoser(round, i), vector.getHistory().getLoser(round, i));
+                }
+                for (int id = 0; id < contestants; id++) {
+                    assertEquals(scalar.getScore(id), vector.getScore(id), "trial " + trial + ", contestant " + id);
+                }
+                assertEquals(scalar.getRemainingContestants(), vector.getRemainingContestants());
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package org.example.cluster;
+
+import org.example.BeautyContest;
+import org.example.Contestant;
+import org.example.RoundDecision;
+import org.example.RoundEngine;
+import org.example.RoundHistory;
+import org.example.RoundStatistics;
+import org.example.TargetMode;
+import org.example.rules.RuleSet;
+import org.example.rules.Rules;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedContestTest {
+
+    private static Contestant[] players(int count) {
+        Contestant[] players = new Contestant[count];
+        for (int p = 0; p < count; p++) {
+            players[p] = new Contestant("Cluster player " + p);
+        }
+        return players;
+    }
+
+    private static void playAgainstSingleContest(RuleSet ruleSet, TargetMode targetMode, long seed) {
+        Random random = new Random(seed);
+        for (int trial = 0; trial < 200; trial++) {
+            Contestant[] players = players(1 + random.nextInt(12));
+            BeautyContest single = new BeautyContest(ruleSet, players);
+            single.setTargetMode(targetMode);
+            try (ShardedContest sharded = new ShardedContest(ruleSet, 1 + random.nextInt(4), players)) {
+                sharded.setTargetMode(targetMode);
+                while (!single.finished() && single.getRound() <= 30) {
+                    for (Contestant player : players) {
+                        if (single.getContestantScore(player) > 0) {
+                            // Small ranges make duplicates, exact matches and 0/100 pairs likely
+                            int guess = random.nextBoolean() ? random.nextInt(3) * 50 : random.nextInt(101);
+                            single.submitGuess(player, guess);
+                            sharded.submitGuess(player, guess);
+                        }
+                    }
+                    final int round = single.getRound();
+                    single.evaluateRound();
+                    RoundDecision decision = sharded.evaluateRound();
+
+                    RoundHistory history = single.getRoundHistory();
+                    assertEquals(history.getTarget(round), decision.getTarget(), "trial " + trial);
+                    assertEquals(history.getPenalty(round), decision.getPenalty(), "trial " + trial);
+                    assertEquals(history.getRules(round), decision.getRules(), "trial " + trial);
+                    for (Contestant player : players) {
+                        assertEquals(single.getContestantScore(player), sharded.getContestantScore(player),
+                                "trial " + trial + ", " + player);
+                    }
+                    assertEquals(single.getRemainingContestants(), sharded.getRemainingContestants());
+                    assertEquals(single.getRound(), sharded.getRound());
+                }
+            }
+        }
+    }
+
+    @Test
+    void matchesSingleContestWithFloatTargets() {
+        playAgainstSingleContest(RuleSet.DEFAULT, TargetMode.FLOAT, 3);
+    }
+
+    @Test
+    void matchesSingleContestWithExactTargets() {
+        playAgainstSingleContest(RuleSet.DEFAULT, TargetMode.EXACT, 5);
+    }
+
+    @Test
+    void matchesSingleContestWithAnotherRuleSet() {
+        RuleSet ruleSet = new RuleSet(2, 3, 4, 2, Rules.exactHitPenalty(5, 2), Rules.closestGuessWins());
+        playAgainstSingleContest(ruleSet, TargetMode.EXACT, 7);
+    }
+
+    @Test
+    void coordinatorRejectsShardsWithDifferentRuleSets() {
+        RuleSet ruleSet = new RuleSet(2, 3, 4, 2, Rules.closestGuessWins());
+        try (InProcessChannel first = new InProcessChannel(new ContestShard(ruleSet, players(2)), "first");
+             InProcessChannel second = new InProcessChannel(new ContestShard(players(2)), "second")) {
+            assertSame(ruleSet, new ContestCoordinator(first).getRuleSet());
+            assertThrows(IllegalArgumentException.class, () -> new ContestCoordinator(first, second));
+        }
+    }
+
+    @Test
+    void shardsRejectRequestsForAnotherRound() {
+        ContestShard shard = new ContestShard(players(3));
+        try (InProcessChannel channel = new InProcessChannel(shard, "test-shard")) {
+            RoundStatistics statistics = channel.collectStatistics(1).join();
+            assertEquals(3, statistics.getRemainingContestants());
+
+            CompletionException e = assertThrows(CompletionException.class,
+                    () -> channel.closeRound(2, new RoundDecision()).join());
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+            assertEquals(1, shard.getRound());
+        }
+    }
+
+    @Test
+    void collectingStatisticsFreezesTheRound() {
+        Contestant[] players = players(3);
+        ContestShard shard = new ContestShard(players);
+        try (InProcessChannel channel = new InProcessChannel(shard, "test-shard")) {
+            shard.submitGuess(players[0], 10);
+            shard.submitGuess(players[1], 20);
+            RoundStatistics statistics = channel.collectStatistics(1).join();
+            assertEquals(2, statistics.getCount());
+
+            // A guess of 100 would make 10 lose instead of 20 if it were judged in this round
+            assertThrows(IllegalArgumentException.class, () -> shard.submitGuess(players[2], 100));
+            RoundDecision decision = new RoundDecision();
+            decision.decide(statistics, TargetMode.FLOAT);
+            channel.closeRound(1, decision).join();
+            assertEquals(RoundEngine.STARTING_SCORE, shard.getContestantScore(players[0]));
+            assertEquals(RoundEngine.STARTING_SCORE - 1, shard.getContestantScore(players[1]));
+            assertEquals(RoundEngine.STARTING_SCORE, shard.getContestantScore(players[2]));
+
+            shard.submitGuess(players[2], 100);
+            assertEquals(1, channel.collectStatistics(2).join().getCount());
+        }
+    }
+
+    @Test
+    void retryingAFailedCloseOnlyClosesTheRemainingShards() {
+        Contestant[] players = players(4);
+        ContestShard first = new ContestShard(players[0], players[1]);
+        ContestShard second = new ContestShard(players[2], players[3]);
+        try (InProcessChannel firstChannel = new InProcessChannel(first, "first");
+             InProcessChannel secondChannel = new InProcessChannel(second, "second")) {
+            // The second shard drops the first request to close a round
+            boolean[] dropped = new boolean[1];
+            ShardChannel flaky = new ShardChannel() {
+                @Override
+                public CompletableFuture<RuleSet> getRuleSet() {
+                    return secondChannel.getRuleSet();
+                }
+
+                @Override
+                public CompletableFuture<RoundStatistics> collectStatistics(int round) {
+                    return secondChannel.collectStatistics(round);
+                }
+
+                @Override
+                public CompletableFuture<Void> closeRound(int round, RoundDecision decision) {
+                    if (!dropped[0]) {
+                        dropped[0] = true;
+                        CompletableFuture<Void> failed = new CompletableFuture<>();
+                        failed.completeExceptionally(new IllegalStateException("Connection lost"));
+                        return failed;
+                    }
+                    return secondChannel.closeRound(round, decision);
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+            ContestCoordinator coordinator = new ContestCoordinator(firstChannel, flaky);
+            first.submitGuess(players[0], 10);
+            first.submitGuess(players[1], 20);
+            second.submitGuess(players[2], 30);
+            second.submitGuess(players[3], 100);
+
+            assertThrows(CompletionException.class, coordinator::evaluateRound);
+            assertEquals(2, first.getRound());
+            assertEquals(1, second.getRound());
+            assertEquals(1, coordinator.getRound());
+
+            RoundDecision decision = coordinator.evaluateRound();
+            assertEquals(2, coordinator.getRound());
+            assertEquals(2, first.getRound());
+            assertEquals(2, second.getRound());
+            // Every shard applied the decision exactly once
+            int[] guesses = {10, 20, 30, 100};
+            for (int p = 0; p < players.length; p++) {
+                ContestShard shard = p < 2 ? first : second;
+                int penalty = decision.isLosing(guesses[p]) ? decision.getPenalty() : 0;
+                assertEquals(RoundEngine.STARTING_SCORE - penalty, shard.getContestantScore(players[p]));
+            }
+            assertTrue(decision.isLosing(100));
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package org.example.codec;
+
+import org.example.BeautyContest;
+import org.example.Contestant;
+import org.example.GuessRejection;
+import org.example.RoundHistory;
+import org.example.rules.RuleSet;
+import org.example.rules.Rules;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WireFormatTest {
+    private static RuleSet ruleSet(int startingScore, int penalty) {
+        return new RuleSet(4, 5, startingScore, penalty, Rules.duplicateElimination(4),
+                Rules.exactHitPenalty(3, 2), Rules.zeroVsHundred(2), Rules.closestGuessWins());
+    }
+
+    @Test
+    void varintsRoundTrip() {
+        ByteBuffer buffer = ByteBuffer.allocate(WireFormat.MAX_VARINT_SIZE);
+        for (int value : new int[]{0, 1, 127, 128, 16383, 16384, 1 << 21, Integer.MAX_VALUE, -1}) {
+            buffer.clear();
+            WireFormat.putVarint(buffer, value);
+            assertEquals(WireFormat.varintSize(value), buffer.position());
+            buffer.flip();
+            assertEquals(value, WireFormat.getVarint(buffer));
+        }
+    }
+
+    // Plays random games on two contests: the guesses of one travel to the other through
+    // GUESSES messages, and round results and scoreboards are checked against both
+    @Test
+    void messagesRoundTripContestState() {
+        Random random = new Random(23);
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+        RoundResult result = new RoundResult();
+        Scoreboard scoreboard = new Scoreboard();
+        int[] received = new int[0];
+        for (int trial = 0; trial < 100; trial++) {
+            final int count = 1 + random.nextInt(trial % 10 == 0 ? 1000 : 20);
+            Contestant[] players = new Contestant[count];
+            for (int p = 0; p < count; p++) {
+                players[p] = new Contestant("Wire player " + p);
+            }
+            BeautyContest sender = new BeautyContest(players);
+            BeautyContest receiver = new BeautyContest(players);
+            while (!sender.finished() && sender.getRound() <= 15) {
+                int[] pairs = new int[2 * count];
+                int submitted = 0;
+                for (int id = 0; id < count; id++) {
+                    if (sender.getScore(id) > 0 && random.nextInt(8) != 0) {
+                        pairs[2 * submitted] = id;
+                        pairs[2 * submitted + 1] = random.nextBoolean() ? random.nextInt(6) : random.nextInt(101);
+                        submitted++;
+                    }
+                }
+                sender.submitGuesses(pairs, 0, submitted, new byte[submitted]);
+
+                buffer.clear();
+                WireFormat.putGuesses(buffer, pairs, 0, submitted);
+                assertTrue(buffer.position() <= WireFormat.maxGuessesSize(submitted));
+                buffer.flip();
+                if (received.length < pairs.length) {
+                    received = new int[pairs.length];
+                }
+                assertEquals(WireFormat.GUESSES, WireFormat.peekType(buffer));
+                assertEquals(submitted, WireFormat.getGuesses(buffer, received));
+                assertFalse(buffer.hasRemaining());
+                byte[] codes = new byte[submitted];
+                assertEquals(submitted, receiver.submitGuesses(received, 0, submitted, codes));
+                for (byte code : codes) {
+                    assertEquals(GuessRejection.ACCEPTED, code);
+                }
+
+                final int round = sender.getRound();
+                sender.evaluateRound();
+                receiver.evaluateRound();
+                RoundHistory history = sender.getRoundHistory();
+                buffer.clear();
+                WireFormat.putRoundResult(buffer, history, round, count);
+                assertEquals(WireFormat.roundResultSize(history, round, count), buffer.position());
+                buffer.flip();
+                WireFormat.getRoundResult(buffer, result);
+                assertEquals(round, result.getRound());
+                assertEquals(history.getTarget(round), result.getTarget());
+                assertEquals(history.getPenalty(round), result.getPenalty());
+                assertEquals(history.getRules(round), result.getRules());
+                assertEquals(history.getLoserCount(round), result.getLoserCount());
+                for (int i = 0; i < history.getLoserCount(round); i++) {
+                    assertTrue(result.isLoser(history.getLoser(round, i)));
+                }
+
+                buffer.clear();
+                WireFormat.putScoreboard(buffer, receiver);
+                assertEquals(WireFormat.scoreboardSize(receiver), buffer.position());
+                buffer.flip();
+                WireFormat.getScoreboard(buffer, scoreboard);
+                assertEquals(sender.getRound(), scoreboard.getRound());
+                assertEquals(count, scoreboard.getContestantCount());
+                for (int id = 0; id < count; id++) {
+                    assertEquals(sender.getScore(id), scoreboard.getScore(id), "trial " + trial + ", contestant " + id);
+                }
+            }
+        }
+    }
+
+    @Test
+    void rejectsMessagesOfAnotherType() {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        WireFormat.putGuesses(buffer, new int[]{3, 40}, 0, 1);
+        buffer.flip();
+        assertThrows(IllegalArgumentException.class, () -> WireFormat.getScoreboard(buffer, new Scoreboard()));
+    }
+
+    @Test
+    void roundTripsPenaltiesThatDoNotFitAByte() {
+        Contestant[] players = {new Contestant("Heavy wire player 0"), new Contestant("Heavy wire player 1"),
+                new Contestant("Heavy wire player 2")};
+        BeautyContest contest = new BeautyContest(ruleSet(1000, 300), players);
+        contest.submitGuess(players[0], 10);
+        contest.submitGuess(players[1], 40);
+        contest.submitGuess(players[2], 90);
+        contest.evaluateRound();
+        RoundHistory history = contest.getRoundHistory();
+        assertTrue(history.getPenalty(1) > 0xFF);
+
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        WireFormat.putRoundResult(buffer, history, 1, players.length);
+        assertEquals(WireFormat.roundResultSize(history, 1, players.length), buffer.position());
+        buffer.flip();
+        RoundResult result = new RoundResult();
+        WireFormat.getRoundResult(buffer, result);
+        assertEquals(history.getPenalty(1), result.getPenalty());
+        assertEquals(history.getLoserCount(1), result.getLoserCount());
+    }
+
+    // A claimed contestant count must be backed by the bytes of the message
+    @Test
+    void rejectsCountsLargerThanTheMessage() {
+        ByteBuffer buffer = ByteBuffer.allocate(32);
+        buffer.put(WireFormat.ROUND_RESULT);
+        WireFormat.putVarint(buffer, 1);
+        buffer.putFloat(20f);
+        WireFormat.putVarint(buffer, 1);
+        buffer.put((byte) 0);
+        WireFormat.putVarint(buffer, Integer.MAX_VALUE);
+        buffer.flip();
+        RoundResult result = new RoundResult();
+        assertThrows(IllegalArgumentException.class, () -> WireFormat.getRoundResult(buffer, result));
+        assertEquals(0, result.getContestantCount());
+
+        buffer.clear();
+        buffer.put(WireFormat.SCOREBOARD);
+        WireFormat.putVarint(buffer, 1);
+        WireFormat.putVarint(buffer, 1 << 30);
+        buffer.put((byte) 8);
+        buffer.flip();
+        Scoreboard scoreboard = new Scoreboard();
+        assertThrows(IllegalArgumentException.class, () -> WireFormat.getScoreboard(buffer, scoreboard));
+        assertEquals(0, scoreboard.getContestantCount());
+    }
+
+    // Starting scores above 14 take a byte per score, and scores below Leaderboard.MIN_SCORE
+    // or above 254 fall back to varints
+    @Test
+    void scoreboardsFitTheRuleSet() {
+        for (int[] rules : new int[][]{{30, 1}, {19, 3}, {1000, 300}}) {
+            Contestant[] players = {new Contestant("Scored player 0"), new Contestant("Scored player 1"),
+                    new Contestant("Scored player 2")};
+            BeautyContest contest = new BeautyContest(ruleSet(rules[0], rules[1]), players);
+            ByteBuffer buffer = ByteBuffer.allocate(64);
+            Scoreboard scoreboard = new Scoreboard();
+            // Eliminated contestants keep guessing and are rejected
+            final int[] pairs = {0, 0, 1, 100, 2, 30};
+            while (contest.getRemainingContestants() > 1) {
+                contest.submitGuesses(pairs, 0, players.length, new byte[players.length]);
+                contest.evaluateRound();
+
+                buffer.clear();
+                WireFormat.putScoreboard(buffer, contest);
+                assertEquals(WireFormat.scoreboardSize(contest), buffer.position());
+                buffer.flip();
+                WireFormat.getScoreboard(buffer, scoreboard);
+                for (int id = 0; id < players.length; id++) {
+                    assertEquals(contest.getScore(id), scoreboard.getScore(id));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package org.example.ingest;
+
+import org.example.BeautyContest;
+import org.example.Contestant;
+import org.example.GuessRejection;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GuessIngestorTest {
+    private static BeautyContest contest(int contestants) {
+        Contestant[] players = new Contestant[contestants];
+        for (int i = 0; i < contestants; i++) {
+            players[i] = new Contestant("Player " + i);
+        }
+        return new BeautyContest(players);
+    }
+
+    @Test
+    void closesTheRoundOnceEveryoneHasGuessed() throws Exception {
+        final int contestants = 1000;
+        final int producers = 4;
+        BeautyContest contest = contest(contestants);
+        BlockingQueue<Integer> closedRounds = new LinkedBlockingQueue<>();
+        GuessIngestor ingestor = new GuessIngestor(contest, 16, 8, new GuessIngestor.Listener() {
+            @Override
+            public void onRejected(int contestantId, int guess, byte code) {
+            }
+
+            @Override
+            public void onRoundClosed(BeautyContest closed, int round) {
+                closedRounds.add(round);
+            }
+        });
+        ingestor.start();
+
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        for (int p = 0; p < producers; p++) {
+            final int producer = p;
+            pool.submit(() -> {
+                for (int id = producer; id < contestants; id += producers) {
+                    ingestor.put(id, 200); // Rejected, the contestant can still guess afterwards
+                    ingestor.put(id, id % 101);
+                }
+                ingestor.put(contestants + producer, 50); // Not participating
+                return null;
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+        assertEquals(Integer.valueOf(1), closedRounds.poll(1, TimeUnit.MINUTES));
+
+        // The second round starts right away with guesses arriving for it
+        ingestor.put(0, 10);
+        ingestor.close();
+
+        assertEquals(contestants + 1, ingestor.getCount(GuessRejection.ACCEPTED));
+        assertEquals(contestants, ingestor.getCount(GuessRejection.OUT_OF_BOUNDS));
+        assertEquals(producers, ingestor.getCount(GuessRejection.NOT_PARTICIPATING));
+        assertEquals(1, ingestor.getRoundsClosed());
+        assertEquals(2, contest.getRound());
+        assertEquals(10, contest.getGuess(0));
+    }
+
+    @Test
+    void offerFailsWhileTheRingIsFull() {
+        GuessIngestor ingestor = new GuessIngestor(contest(3), 2, 1, GuessIngestor.Listener.NONE);
+        assertTrue(ingestor.offer(0, 1));
+        assertTrue(ingestor.offer(1, 2));
+        assertFalse(ingestor.offer(2, 3));
+
+        ingestor.start();
+        ingestor.close();
+        assertEquals(2, ingestor.getCount(GuessRejection.ACCEPTED));
+        assertThrows(IllegalStateException.class, () -> ingestor.offer(2, 3));
+    }
+
+    @Test
+    void failsWhenTheListenerThrows() throws Exception {
+        BeautyContest contest = contest(2);
+        GuessIngestor ingestor = new GuessIngestor(contest, 1, 1, new GuessIngestor.Listener() {
+            @Override
+            public void onRejected(int contestantId, int guess, byte code) {
+            }
+
+            @Override
+            public void onRoundClosed(BeautyContest closed, int round) {
+                throw new IllegalArgumentException("Broken listener");
+            }
+        });
+        ingestor.start();
+
+        // Closes the first round, which kills the worker; the producer must not block forever
+        // on the full ring afterwards
+        Future<?> producer = Executors.newSingleThreadExecutor().submit(() -> {
+            for (int guess = 0; ; guess++) {
+                ingestor.put(guess % 2, guess % 101);
+            }
+        });
+        ExecutionException failed = assertThrows(ExecutionException.class,
+                () -> producer.get(1, TimeUnit.MINUTES));
+        assertTrue(failed.getCause() instanceof IllegalStateException);
+        assertEquals("Broken listener", failed.getCause().getCause().getMessage());
+
+        IllegalStateException closing = assertThrows(IllegalStateException.class, ingestor::close);
+        assertTrue(closing.getCause() instanceof IllegalArgumentException);
+        assertThrows(IllegalStateException.class, () -> ingestor.offer(0, 10));
+    }
+
+    @Test
+    void closeReportsGuessesThatWereNeverDrained() throws Exception {
+        GuessIngestor unstarted = new GuessIngestor(contest(3), 4, 1, GuessIngestor.Listener.NONE);
+        assertTrue(unstarted.offer(0, 1));
+        assertTrue(unstarted.offer(1, 2));
+        IllegalStateException notStarted = assertThrows(IllegalStateException.class, unstarted::close);
+        assertEquals("Ingestor was never started, 2 guesses were not submitted", notStarted.getMessage());
+
+        CountDownLatch closing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        GuessIngestor ingestor = new GuessIngestor(contest(2), 4, 1, new GuessIngestor.Listener() {
+            @Override
+            public void onRejected(int contestantId, int guess, byte code) {
+            }
+
+            @Override
+            public void onRoundClosed(BeautyContest closed, int round) {
+                closing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        ingestor.start();
+        ingestor.put(0, 10);
+        ingestor.put(1, 20);
+        assertTrue(closing.await(1, TimeUnit.MINUTES));
+        ingestor.put(0, 30);
+
+        // The worker is stuck in the listener with one guess still queued
+        IllegalStateException timedOut = assertThrows(IllegalStateException.class,
+                () -> ingestor.close(10, TimeUnit.MILLISECONDS));
+        assertEquals("Ingestor is still draining, 1 guesses were not submitted yet", timedOut.getMessage());
+
+        release.countDown();
+        ingestor.close();
+        assertEquals(3, ingestor.getCount(GuessRejection.ACCEPTED));
+    }
+}
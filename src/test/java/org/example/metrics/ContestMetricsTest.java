@@ -0,0 +1,97 @@
+package org.example.metrics;
+
+import org.example.BeautyContest;
+import org.example.Contestant;
+import org.example.GuessRejection;
+import org.example.RoundEngine;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContestMetricsTest {
+
+    @Test
+    void histogramReportsValuesWithinBucketPrecision() {
+        Histogram histogram = new Histogram();
+        for (long value = 1; value <= 1000; value++) {
+            histogram.record(value * 1000);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500_500_000, histogram.getSum());
+        assertEquals(500_000, histogram.getValueAtPercentile(50), 500_000 * 0.07);
+        assertEquals(990_000, histogram.getValueAtPercentile(99), 990_000 * 0.07);
+        assertEquals(1_000_000, histogram.getMax(), 1_000_000 * 0.07);
+    }
+
+    @Test
+    void bucketsCoverEveryValue() {
+        for (long value : new long[]{0, 1, 31, 32, 33, 47, 48, 63, 64, 1 << 20, Long.MAX_VALUE}) {
+            int bucket = Histogram.bucketOf(value);
+            assertTrue(Histogram.highestValueIn(bucket) >= value, "value " + value);
+            assertTrue(bucket == 0 || Histogram.highestValueIn(bucket - 1) < value, "value " + value);
+        }
+    }
+
+    @Test
+    void recordsGuessesRoundsAndRuleHits() {
+        Contestant loser = new Contestant("Loser");
+        Contestant winner = new Contestant("Winner");
+        BeautyContest contest = new BeautyContest(loser, winner);
+        ContestMetrics metrics = new ContestMetrics();
+        contest.setMetrics(metrics);
+
+        contest.submitGuess(loser, 0);
+        contest.submitGuess(winner, 100);
+        assertThrows(IllegalArgumentException.class, () -> contest.submitGuess(winner, 100));
+        assertThrows(IllegalArgumentException.class, () -> contest.submitGuess(new Contestant("Outsider"), 1));
+        contest.evaluateRound();
+
+        assertEquals(2, metrics.getGuesses(GuessRejection.ACCEPTED));
+        assertEquals(1, metrics.getGuesses(GuessRejection.ALREADY_SUBMITTED));
+        assertEquals(1, metrics.getGuesses(GuessRejection.NOT_PARTICIPATING));
+        assertEquals(1, metrics.getRounds());
+        assertEquals(1, metrics.getRuleHits(RoundEngine.RULE_ZERO_VS_HUNDRED));
+        assertEquals(0, metrics.getRuleHits(RoundEngine.RULE_DOUBLE_PENALTY));
+        assertEquals(1, metrics.getEvaluationNanos().getCount());
+        assertEquals(2, metrics.getContestantsPerRound().getMax());
+    }
+
+    @Test
+    void servesPrometheusText() throws IOException {
+        ContestMetrics metrics = new ContestMetrics();
+        metrics.recordGuesses(GuessRejection.OUT_OF_BOUNDS, 3);
+        metrics.recordRound(1500, 3, RoundEngine.RULE_DOUBLE_PENALTY | RoundEngine.RULE_DUPLICATE_ELIMINATION);
+        metrics.setStorageGauge(() -> 250, () -> 100);
+
+        try (MetricsEndpoint endpoint = new MetricsEndpoint(0, metrics, new PrometheusExporter())) {
+            URL url = new URL("http://127.0.0.1:" + endpoint.getPort() + "/metrics");
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            assertEquals(200, connection.getResponseCode());
+            String body;
+            try (InputStream in = connection.getInputStream()) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                for (int read; (read = in.read(buffer)) > 0; ) {
+                    bytes.write(buffer, 0, read);
+                }
+                body = new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+            }
+
+            assertTrue(body.contains("beauty_contest_guesses_total{result=\"out_of_bounds\"} 3\n"), body);
+            assertTrue(body.contains("beauty_contest_rounds_total 1\n"), body);
+            assertTrue(body.contains("beauty_contest_rule_hits_total{rule=\"double_penalty\"} 1\n"), body);
+            assertTrue(body.contains("beauty_contest_rule_hits_total{rule=\"zero_vs_hundred\"} 0\n"), body);
+            assertTrue(body.contains("beauty_contest_contestants_per_round_count 1\n"), body);
+            assertTrue(body.contains("beauty_contest_evaluation_seconds{quantile=\"0.5\"}"), body);
+            assertTrue(body.contains("beauty_contest_storage_bytes_per_contestant 2.5\n"), body);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package org.example.persistence;
+
+import org.example.BeautyContest;
+import org.example.Contestant;
+import org.example.ContestantRegistry;
+import org.example.rules.RuleSet;
+import org.example.rules.Rules;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditVerifierTest {
+    @TempDir
+    Path directory;
+
+    // Logs the given number of interleaved games of three to five players until each is decided
+    private void logGames(int games) throws IOException {
+        SplittableRandom random = new SplittableRandom(17);
+        BeautyContest[] contests = new BeautyContest[games];
+        try (EventLog log = EventLog.open(directory)) {
+            for (int game = 0; game < games; game++) {
+                Contestant[] players = new Contestant[3 + game % 3];
+                for (int i = 0; i < players.length; i++) {
+                    players[i] = new Contestant("Game " + game + " player " + i);
+                }
+                contests[game] = new BeautyContest(players);
+                log.attach(game, contests[game]);
+            }
+            for (boolean playing = true; playing; ) {
+                playing = false;
+                for (BeautyContest contest : contests) {
+                    if (contest.getRemainingContestants() > 1 && contest.getRound() <= 50) {
+                        for (int id = 0; id < contest.getContestantCount(); id++) {
+                            if (contest.getScore(id) > 0) {
+                                contest.submitGuess(contest.getContestant(id), random.nextInt(101));
+                            }
+                        }
+                        contest.evaluateRound();
+                        playing = true;
+                    }
+                }
+            }
+        }
+    }
+
+    // Applies the change to the nth record of the given type in the first segment
+    private void tamper(byte type, int nth, int offset, byte value) throws IOException {
+        Path segment = LogFiles.segment(directory, LogFiles.segments(directory)[0]);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            int seen = 0;
+            for (int position = 0, size; (size = EventRecords.sizeAt(buffer, position)) >= 0; position += size) {
+                if (buffer.get(position) == type && seen++ == nth) {
+                    buffer.put(position + offset, value);
+                    return;
+                }
+            }
+        }
+        fail("Log has too few records");
+    }
+
+    @Test
+    void verifiesACleanLog() throws IOException {
+        logGames(20);
+
+        AuditReport report = new AuditVerifier().verify(directory);
+        assertTrue(report.isClean(), report.toString());
+        assertEquals(20, report.getGames());
+        assertEquals(0, report.getSkippedGames());
+        assertTrue(report.getRounds() >= 20 * 2);
+        assertTrue(report.getGamesPerSecond() > 0);
+    }
+
+    @Test
+    void reportsTamperedRounds() throws IOException {
+        logGames(5);
+        // Target of the first round of game 0, then the loser of the third PENALTY record
+        tamper(EventRecords.ROUND_EVALUATED, 0, 1 + 8 + 4, (byte) 0x7F);
+        tamper(EventRecords.PENALTY, 2, 1 + 8 + 3, (byte) 9);
+
+        AuditReport report = new AuditVerifier().verify(directory);
+        assertEquals(5, report.getGames());
+        assertEquals(2, report.getMismatchedGames());
+        AuditReport.Mismatch target = report.getMismatches().get(0);
+        assertEquals(0, target.getContestId());
+        assertEquals(1, target.getRound());
+        assertEquals(AuditReport.Kind.TARGET, target.getKind());
+        assertEquals(AuditReport.Kind.LOSER, report.getMismatches().get(1).getKind());
+        assertEquals(9, report.getMismatches().get(1).getLogged());
+    }
+
+    @Test
+    void reportDoesNotDependOnParallelism() throws IOException {
+        logGames(3 * AuditVerifier.GAMES_PER_BATCH + 7);
+        tamper(EventRecords.GUESS, 4000, 1 + 8 + 4, (byte) 101);
+
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool parallel = new ForkJoinPool(4);
+        try {
+            AuditVerifier verifier = new AuditVerifier();
+            AuditReport sequential = verifier.verify(directory, single);
+            AuditReport forked = verifier.verify(directory, parallel);
+            assertEquals(3 * AuditVerifier.GAMES_PER_BATCH + 7, forked.getGames());
+            assertEquals(1, forked.getMismatchedGames());
+            assertEquals(AuditReport.Kind.GUESS, forked.getMismatches().get(0).getKind());
+            assertEquals(sequential.getRounds(), forked.getRounds());
+            assertEquals(sequential.getMismatches().toString(), forked.getMismatches().toString());
+        } finally {
+            single.shutdown();
+            parallel.shutdown();
+        }
+    }
+
+    @Test
+    void verifiesPenaltiesThatDoNotFitAByte() throws IOException {
+        RuleSet heavy = new RuleSet("heavy", 4, 5, 1000, 300, Rules.duplicateElimination(4),
+                Rules.exactHitPenalty(3, 2), Rules.zeroVsHundred(2));
+        ContestantRegistry registry = new ContestantRegistry();
+        Contestant[] players = {new Contestant(registry, "Heavy Ann"), new Contestant(registry, "Heavy Ben"),
+                new Contestant(registry, "Heavy Cid")};
+        BeautyContest contest = new BeautyContest(heavy, players);
+        try (EventLog log = EventLog.open(directory, heavy)) {
+            log.attach(1, contest);
+            for (int round = 0; round < 3; round++) {
+                contest.submitGuess(players[0], 10);
+                contest.submitGuess(players[1], 40);
+                contest.submitGuess(players[2], 90);
+                contest.evaluateRound();
+            }
+        }
+        assertTrue(contest.getRoundHistory().getPenalty(1) > 255);
+
+        AuditReport report = new AuditVerifier(AuditVerifier.DEFAULT_MAX_MISMATCHES, heavy).verify(directory);
+        assertTrue(report.isClean(), report.toString());
+        assertEquals(3, report.getRounds());
+        // The audit interned the names in its own registry
+        assertEquals(-1, ContestantRegistry.global().find("Heavy Ann"));
+    }
+}
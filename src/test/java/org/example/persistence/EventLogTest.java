@@ -0,0 +1,266 @@
+package org.example.persistence;
+
+import org.example.BeautyContest;
+import org.example.Contestant;
+import org.example.RoundEngine;
+import org.example.TargetMode;
+import org.example.rules.RuleSet;
+import org.example.rules.Rules;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventLogTest {
+    @TempDir
+    Path directory;
+
+    private static Contestant[] players(String prefix, int count) {
+        Contestant[] players = new Contestant[count];
+        for (int i = 0; i < count; i++) {
+            players[i] = new Contestant(prefix + " " + i);
+        }
+        return players;
+    }
+
+    private static void playRound(BeautyContest contest, int seed) {
+        for (int id = 0; id < contest.getContestantCount(); id++) {
+            if (contest.getScore(id) > 0) {
+                contest.submitGuess(contest.getContestant(id), (seed * 37 + id * 11) % 101);
+            }
+        }
+        contest.evaluateRound();
+    }
+
+    private static void assertSameState(BeautyContest expected, BeautyContest actual) {
+        assertEquals(expected.getRound(), actual.getRound());
+        assertEquals(expected.getContestantCount(), actual.getContestantCount());
+        for (int id = 0; id < expected.getContestantCount(); id++) {
+            assertEquals(expected.getContestant(id), actual.getContestant(id));
+            assertEquals(expected.getScore(id), actual.getScore(id));
+            assertEquals(expected.getGuess(id), actual.getGuess(id));
+        }
+    }
+
+    @Test
+    void recoversContestsFromTheLog() throws IOException {
+        BeautyContest first = new BeautyContest(players("First", 5));
+        BeautyContest second = new BeautyContest(players("Second", 3));
+        try (EventLog log = EventLog.open(directory, 256 * 1024, 4, Long.MAX_VALUE)) {
+            log.attach(1, first);
+            log.attach(2, second);
+            for (int round = 0; round < 6; round++) {
+                playRound(first, round);
+                playRound(second, round + 100);
+            }
+            // A guess in the open round must survive as well
+            first.submitGuess(first.getContestant(0), 42);
+        }
+
+        ContestRecovery recovery = ContestRecovery.recover(directory);
+        Map<Long, BeautyContest> recovered = recovery.getContests();
+        assertEquals(2, recovered.size());
+        assertSameState(first, recovered.get(1L));
+        assertSameState(second, recovered.get(2L));
+        assertTrue(recovery.getEventsReplayed() > 8 + 6 * 8);
+    }
+
+    @Test
+    void snapshotsBoundReplay() throws IOException {
+        BeautyContest contest = new BeautyContest(players("Player", 5));
+        try (EventLog log = EventLog.open(directory, EventLog.DEFAULT_BUFFER_SIZE, 1, 20)) {
+            log.attach(7, contest);
+            for (int round = 0; round < 5; round++) {
+                playRound(contest, round);
+                log.snapshotIfDue();
+            }
+            log.snapshot();
+            playRound(contest, 5);
+        }
+
+        assertEquals(1, LogFiles.segments(directory).length);
+        assertEquals(1, LogFiles.snapshots(directory).length);
+        ContestRecovery recovery = ContestRecovery.recover(directory);
+        assertSameState(contest, recovery.getContests().get(7L));
+        // Only the last round was replayed: five guesses, the evaluation and its penalties
+        assertTrue(recovery.getEventsReplayed() <= 5 + 1 + 5);
+    }
+
+    @Test
+    void reopenedLogKeepsLoggingRecoveredContests() throws IOException {
+        BeautyContest contest = new BeautyContest(players("Player", 4));
+        try (EventLog log = EventLog.open(directory)) {
+            log.attach(3, contest);
+            playRound(contest, 1);
+        }
+        BeautyContest reopened;
+        try (EventLog log = EventLog.open(directory)) {
+            reopened = log.getContests().get(3L);
+            assertSameState(contest, reopened);
+            playRound(reopened, 2);
+            assertThrows(IllegalArgumentException.class, () -> log.attach(3, new BeautyContest()));
+        }
+
+        assertSameState(reopened, ContestRecovery.recover(directory).getContests().get(3L));
+    }
+
+    @Test
+    void rejectsContestsThatHaveBeenPlayed() throws IOException {
+        BeautyContest evaluated = new BeautyContest(players("Early", 3));
+        playRound(evaluated, 1);
+        BeautyContest guessed = new BeautyContest(players("Eager", 3));
+        guessed.submitGuess(guessed.getContestant(0), 30);
+        try (EventLog log = EventLog.open(directory)) {
+            assertThrows(IllegalArgumentException.class, () -> log.attach(1, evaluated));
+            assertThrows(IllegalArgumentException.class, () -> log.attach(2, guessed));
+            assertTrue(log.getContests().isEmpty());
+        }
+        // Nothing was logged for them, so the log still opens
+        try (EventLog log = EventLog.open(directory)) {
+            assertTrue(log.getContests().isEmpty());
+        }
+    }
+
+    @Test
+    void replaysResets() throws IOException {
+        BeautyContest contest = new BeautyContest(players("Player", 5));
+        try (EventLog log = EventLog.open(directory)) {
+            log.attach(4, contest);
+            for (int round = 0; contest.getRemainingContestants() > 2; round++) {
+                playRound(contest, round);
+            }
+            contest.reset();
+            playRound(contest, 10);
+            contest.submitGuess(contest.getContestant(2), 7);
+        }
+
+        assertSameState(contest, ContestRecovery.recover(directory).getContests().get(4L));
+        AuditReport audit = new AuditVerifier().verify(directory);
+        assertEquals(1, audit.getGames());
+        assertTrue(audit.isClean(), audit.toString());
+        try (EventLog log = EventLog.open(directory)) {
+            assertSameState(contest, log.getContests().get(4L));
+        }
+    }
+
+    @Test
+    void recoversTheRuleSetOfEachContest() throws IOException {
+        RuleSet half = new RuleSet("half", 1, 2, 3, 1, Rules.closestGuessWins());
+        RuleSet harsh = new RuleSet("harsh", 4, 5, 10, 300, Rules.closestGuessWins());
+        BeautyContest halfContest = new BeautyContest(half, players("Half", 2));
+        BeautyContest harshContest = new BeautyContest(harsh, players("Harsh", 3));
+        BeautyContest defaultContest = new BeautyContest(players("Default", 3));
+        try (EventLog log = EventLog.open(directory, half, harsh)) {
+            log.attach(1, halfContest);
+            log.attach(2, harshContest);
+            log.attach(3, defaultContest);
+            playRound(halfContest, 1);
+            playRound(harshContest, 1);
+            playRound(defaultContest, 1);
+        }
+        assertEquals(-290, harshContest.getScore(1));
+
+        Map<Long, BeautyContest> replayed = ContestRecovery.recover(directory, half, harsh).getContests();
+        assertSame(half, replayed.get(1L).getRuleSet());
+        assertSame(harsh, replayed.get(2L).getRuleSet());
+        assertSame(RuleSet.DEFAULT, replayed.get(3L).getRuleSet());
+        assertSameState(halfContest, replayed.get(1L));
+        assertSameState(harshContest, replayed.get(2L));
+        assertThrows(IllegalStateException.class, () -> ContestRecovery.recover(directory, half));
+
+        // Reopening recovers from the log and then starts from a snapshot
+        try (EventLog log = EventLog.open(directory, half, harsh)) {
+            assertSameState(harshContest, log.getContests().get(2L));
+        }
+        Map<Long, BeautyContest> restored = ContestRecovery.recover(directory, half, harsh).getContests();
+        assertSame(half, restored.get(1L).getRuleSet());
+        assertSameState(halfContest, restored.get(1L));
+        assertSameState(harshContest, restored.get(2L));
+        restored.get(1L).reset();
+        assertEquals(3, restored.get(1L).getScore(0));
+    }
+
+    // A variant with the parameters of RuleSet.DEFAULT but other stages is told apart by name
+    @Test
+    void identifiesRuleSetsByName() throws IOException {
+        RuleSet noDuplicates = new RuleSet("no duplicates", 4, 5, RoundEngine.STARTING_SCORE, 1,
+                Rules.closestGuessWins());
+        BeautyContest variant = new BeautyContest(noDuplicates, players("Variant", 3));
+        BeautyContest original = new BeautyContest(players("Original", 3));
+        try (EventLog log = EventLog.open(directory, noDuplicates)) {
+            assertThrows(IllegalArgumentException.class, () -> log.attach(3,
+                    new BeautyContest(new RuleSet(4, 5, 10, 1, Rules.closestGuessWins()), players("Unnamed", 2))));
+            log.attach(1, variant);
+            log.attach(2, original);
+            playRound(variant, 1);
+            playRound(original, 1);
+        }
+
+        Map<Long, BeautyContest> replayed = ContestRecovery.recover(directory, noDuplicates).getContests();
+        assertSame(noDuplicates, replayed.get(1L).getRuleSet());
+        assertSame(RuleSet.DEFAULT, replayed.get(2L).getRuleSet());
+        assertEquals(2, replayed.size());
+        assertThrows(IllegalStateException.class, () -> ContestRecovery.recover(directory));
+        RuleSet impostor = new RuleSet("no duplicates", 4, 5, 7, 1, Rules.closestGuessWins());
+        assertThrows(IllegalStateException.class, () -> ContestRecovery.recover(directory, impostor));
+        assertThrows(IllegalArgumentException.class, () -> ContestRecovery.recover(directory, noDuplicates,
+                new RuleSet("no duplicates", 4, 5, 10, 1)));
+    }
+
+    @Test
+    void recoversTargetModes() throws IOException {
+        BeautyContest exact = new BeautyContest(players("Exact", 4));
+        exact.setTargetMode(TargetMode.EXACT);
+        BeautyContest switched = new BeautyContest(players("Switched", 4));
+        try (EventLog log = EventLog.open(directory)) {
+            log.attach(1, exact);
+            log.attach(2, switched);
+            playRound(exact, 1);
+            playRound(switched, 1);
+            switched.setTargetMode(TargetMode.EXACT);
+            playRound(switched, 2);
+        }
+
+        Map<Long, BeautyContest> replayed = ContestRecovery.recover(directory).getContests();
+        assertEquals(TargetMode.EXACT, replayed.get(1L).getTargetMode());
+        assertEquals(TargetMode.EXACT, replayed.get(2L).getTargetMode());
+        assertSameState(switched, replayed.get(2L));
+        AuditReport audit = new AuditVerifier().verify(directory);
+        assertTrue(audit.isClean(), audit.toString());
+
+        try (EventLog log = EventLog.open(directory)) {
+            log.getContests().get(1L).setTargetMode(TargetMode.FLOAT);
+        }
+        Map<Long, BeautyContest> restored = ContestRecovery.recover(directory).getContests();
+        assertEquals(TargetMode.FLOAT, restored.get(1L).getTargetMode());
+        assertEquals(TargetMode.EXACT, restored.get(2L).getTargetMode());
+    }
+
+    @Test
+    void ignoresRecordCutShortByACrash() throws IOException {
+        BeautyContest contest = new BeautyContest(players("Player", 5));
+        try (EventLog log = EventLog.open(directory)) {
+            log.attach(1, contest);
+            playRound(contest, 1);
+            contest.submitGuess(contest.getContestant(0), 10);
+            contest.submitGuess(contest.getContestant(1), 20);
+        }
+        int[] segments = LogFiles.segments(directory);
+        Path segment = LogFiles.segment(directory, segments[segments.length - 1]);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(segment) - 3);
+        }
+
+        BeautyContest recovered = ContestRecovery.recover(directory).getContests().get(1L);
+        assertEquals(2, recovered.getRound());
+        assertEquals(10, recovered.getGuess(0));
+        assertEquals(-1, recovered.getGuess(1));
+    }
+}
@@ -0,0 +1,149 @@
+package org.example.rules;
+
+import org.example.BeautyContest;
+import org.example.Contestant;
+import org.example.RoundEngine;
+import org.example.TargetMode;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleSetTest {
+
+    @Test
+    void playsAVariantOfTheRules() {
+        // Two thirds of the average, 5 points to start with and a triple penalty for an exact hit
+        RuleSet variant = new RuleSet(2, 3, 5, 1, Rules.exactHitPenalty(3, 3), Rules.closestGuessWins());
+        Contestant a = new Contestant("A");
+        Contestant b = new Contestant("B");
+        Contestant c = new Contestant("C");
+        BeautyContest contest = new BeautyContest(variant, a, b, c);
+        contest.setTargetMode(TargetMode.EXACT);
+        assertEquals(5, contest.getContestantScore(a));
+
+        contest.submitGuess(a, 30);
+        contest.submitGuess(b, 60);
+        contest.submitGuess(c, 90);
+        contest.evaluateRound();
+        assertEquals(40f, contest.getRoundHistory().getTarget(1));
+        assertEquals(1, contest.getRoundHistory().getPenalty(1));
+        assertEquals(5, contest.getContestantScore(a));
+        assertEquals(4, contest.getContestantScore(b));
+        assertEquals(4, contest.getContestantScore(c));
+
+        contest.submitGuess(a, 20);
+        contest.submitGuess(b, 10);
+        contest.submitGuess(c, 60);
+        contest.evaluateRound();
+        assertEquals(20f, contest.getRoundHistory().getTarget(2));
+        assertEquals(3, contest.getRoundHistory().getPenalty(2));
+        assertEquals(RoundEngine.RULE_DOUBLE_PENALTY, contest.getRoundHistory().getRules(2));
+        assertEquals(5, contest.getContestantScore(a));
+        assertEquals(1, contest.getContestantScore(b));
+        assertEquals(1, contest.getContestantScore(c));
+
+        contest.reset();
+        assertEquals(5, contest.getContestantScore(b));
+    }
+
+    @Test
+    void leavesOutRulesThatAreNotConfigured() {
+        RuleSet noDuplicates = new RuleSet(4, 5, RoundEngine.STARTING_SCORE, 1, Rules.closestGuessWins());
+        for (RuleSet ruleSet : new RuleSet[]{RuleSet.DEFAULT, noDuplicates}) {
+            Contestant a = new Contestant("A");
+            Contestant b = new Contestant("B");
+            Contestant c = new Contestant("C");
+            BeautyContest contest = new BeautyContest(ruleSet, a, b, c);
+            contest.submitGuess(a, 10);
+            contest.submitGuess(b, 10);
+            contest.submitGuess(c, 90);
+            contest.evaluateRound();
+
+            final int duplicateScore = ruleSet == RuleSet.DEFAULT ? 9 : 10;
+            assertEquals(duplicateScore, contest.getContestantScore(a));
+            assertEquals(duplicateScore, contest.getContestantScore(b));
+        }
+    }
+
+    @Test
+    void onlyCallsRulesThatApplyToTheLobby() {
+        int[] calls = new int[1];
+        Rule counting = new Rule() {
+            @Override
+            public int getMaxContestants() {
+                return 2;
+            }
+
+            @Override
+            public boolean apply(RoundContext round) {
+                calls[0]++;
+                return true;
+            }
+        };
+        RuleSet ruleSet = new RuleSet(4, 5, RoundEngine.STARTING_SCORE, 1, counting, Rules.closestGuessWins());
+        RoundContext round = new RoundContext();
+        int[] counts = new int[RoundEngine.MAX_GUESS + 1];
+        counts[50] = 1;
+        counts[60] = 1;
+
+        for (int remaining : new int[]{10, 3, 100, 1_000_000}) {
+            ruleSet.decide(round, counts, 110, 2, 0, remaining, TargetMode.FLOAT);
+        }
+        assertEquals(0, calls[0]);
+        ruleSet.decide(round, counts, 110, 2, 0, 2, TargetMode.FLOAT);
+        assertEquals(1, calls[0]);
+        assertEquals(1, ruleSet.planFor(10).length);
+        assertEquals(2, ruleSet.planFor(1).length);
+    }
+
+    @Test
+    void composesCustomRules() {
+        // The highest guess always loses and no longer counts towards the target
+        Rule highestGuessLoses = new Rule() {
+            @Override
+            public int getMaxContestants() {
+                return Integer.MAX_VALUE;
+            }
+
+            @Override
+            public boolean apply(RoundContext round) {
+                for (int guess = RoundEngine.MAX_GUESS; guess >= RoundEngine.MIN_GUESS; guess--) {
+                    if (round.getCount(guess) > 0) {
+                        round.eliminate(guess);
+                        break;
+                    }
+                }
+                return true;
+            }
+        };
+        RuleSet ruleSet = new RuleSet(4, 5, RoundEngine.STARTING_SCORE, 2, highestGuessLoses, Rules.closestGuessWins());
+        RoundContext round = new RoundContext();
+        int[] counts = new int[RoundEngine.MAX_GUESS + 1];
+        counts[10] = 1;
+        counts[30] = 1;
+        counts[100] = 1;
+
+        ruleSet.decide(round, counts, 140, 3, 0, 3, TargetMode.FLOAT);
+        assertEquals(16f, round.getTarget());
+        assertEquals(2, round.getPenalty());
+        assertTrue(round.isLosing(100));
+        assertTrue(round.isLosing(30));
+        assertFalse(round.isLosing(10));
+    }
+
+    @Test
+    void roundsTargetsHalfUp() {
+        assertEquals(-1, RoundContext.roundTarget(0, 0));
+        assertEquals(19, RoundContext.roundTarget(4 * 73, 5 * 3)); // 19.47
+        assertEquals(2, RoundContext.roundTarget(4 * 5, 5 * 2)); // 2.0
+        assertEquals(80, RoundContext.roundTarget(4 * 15905, 5 * 160)); // 79.525
+        assertEquals(80, RoundContext.roundTarget(4 * 16780065L, 5 * 168856L)); // 79.5
+    }
+
+    @Test
+    void rejectsInvalidRuleSets() {
+        assertThrows(IllegalArgumentException.class, () -> new RuleSet(4, 0, 10, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RuleSet(4, 5, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RuleSet(4, 5, 10, 0));
+    }
+}
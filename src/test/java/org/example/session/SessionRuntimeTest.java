@@ -0,0 +1,261 @@
+package org.example.session;
+
+import org.example.BeautyContest;
+import org.example.ContestListener;
+import org.example.Contestant;
+import org.example.GuessRejection;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionRuntimeTest {
+    private static final int PLAYERS = 500;
+
+    private static Contestant[] players(String prefix, int count) {
+        Contestant[] players = new Contestant[count];
+        for (int p = 0; p < count; p++) {
+            players[p] = new Contestant(prefix + p);
+        }
+        return players;
+    }
+
+    // Guesses only depend on the player and the round
+    private static int guessOf(int player, int round) {
+        return new SplittableRandom(player * 1_000_003L + round).nextInt(101);
+    }
+
+    @Test
+    void liveGameMatchesSerialGame() throws InterruptedException {
+        Contestant[] players = players("Session player ", PLAYERS);
+        BeautyContest live = new BeautyContest(players);
+        AtomicInteger results = new AtomicInteger();
+        RoundOutcome last;
+        try (SessionRuntime runtime = new SessionRuntime(live, 1, TimeUnit.MINUTES)) {
+            for (int p = 0; p < PLAYERS; p++) {
+                final int player = p;
+                runtime.connect(players[p], new Player() {
+                    @Override
+                    public int guess(int round) {
+                        return guessOf(player, round);
+                    }
+
+                    @Override
+                    public void onResult(RoundOutcome outcome, int score) {
+                        results.incrementAndGet();
+                    }
+                });
+            }
+            runtime.start();
+            last = runtime.awaitGameOver();
+        }
+
+        BeautyContest serial = new BeautyContest(players);
+        while (serial.getRemainingContestants() > 1) {
+            for (int p = 0; p < PLAYERS; p++) {
+                if (serial.getContestantScore(players[p]) > 0) {
+                    serial.submitGuess(players[p], guessOf(p, serial.getRound()));
+                }
+            }
+            serial.evaluateRound();
+        }
+        assertTrue(last.isGameOver());
+        assertEquals(serial.getRound() - 1, last.getRound());
+        for (int p = 0; p < PLAYERS; p++) {
+            assertEquals((int) serial.getContestantScore(players[p]), last.getScore(live.indexOf(players[p])));
+        }
+        assertTrue(results.get() >= PLAYERS);
+    }
+
+    @Test
+    void deadlineClosesRoundsWithMissingGuesses() throws InterruptedException {
+        Contestant[] players = players("Deadline player ", 3);
+        BeautyContest contest = new BeautyContest(players);
+        BlockingQueue<RoundOutcome> outcomes = new LinkedBlockingQueue<>();
+        // Scores are only valid during onResult()
+        int[] firstScores = new int[players.length];
+        BlockingQueue<Byte> rejections = new LinkedBlockingQueue<>();
+        CountDownLatch firstRoundClosed = new CountDownLatch(1);
+        try (SessionRuntime runtime = new SessionRuntime(contest, 50, TimeUnit.MILLISECONDS)) {
+            runtime.connect(players[0], new Player() {
+                @Override
+                public int guess(int round) {
+                    return 50;
+                }
+
+                @Override
+                public void onResult(RoundOutcome outcome, int score) {
+                    if (outcome.getRound() == 1) {
+                        for (int p = 0; p < players.length; p++) {
+                            firstScores[p] = outcome.getScore(contest.indexOf(players[p]));
+                        }
+                    }
+                    outcomes.add(outcome);
+                    firstRoundClosed.countDown();
+                }
+            });
+            runtime.connect(players[1], new Player() {
+                @Override
+                public int guess(int round) {
+                    return 20;
+                }
+
+                @Override
+                public void onResult(RoundOutcome outcome, int score) {
+                }
+            });
+            // Only answers once the first round has closed
+            runtime.connect(players[2], new Player() {
+                @Override
+                public int guess(int round) throws InterruptedException {
+                    if (round == 1) {
+                        firstRoundClosed.await();
+                    }
+                    return 0;
+                }
+
+                @Override
+                public void onResult(RoundOutcome outcome, int score) {
+                }
+
+                @Override
+                public void onRejected(int round, int guess, byte code) {
+                    rejections.add(code);
+                }
+            });
+            final long start = System.nanoTime();
+            runtime.start();
+
+            RoundOutcome first = outcomes.poll(10, TimeUnit.SECONDS);
+            assertNotNull(first);
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+            assertEquals(1, first.getRound());
+            assertEquals(28f, first.getTarget());
+            assertEquals(9, firstScores[0]);
+            assertEquals(10, firstScores[1]);
+            assertEquals(10, firstScores[2]);
+            assertEquals(SessionRuntime.LATE, (byte) rejections.poll(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void rejectsSecondGuessOfARound() throws InterruptedException {
+        Contestant[] players = players("Eager player ", 2);
+        BeautyContest contest = new BeautyContest(players);
+        BlockingQueue<Byte> rejections = new LinkedBlockingQueue<>();
+        CountDownLatch bothGuessed = new CountDownLatch(2);
+        try (SessionRuntime runtime = new SessionRuntime(contest, 1, TimeUnit.MINUTES)) {
+            Player eager = new Player() {
+                @Override
+                public int guess(int round) throws InterruptedException {
+                    bothGuessed.countDown();
+                    bothGuessed.await();
+                    return 10;
+                }
+
+                @Override
+                public void onResult(RoundOutcome outcome, int score) {
+                }
+
+                @Override
+                public void onRejected(int round, int guess, byte code) {
+                    rejections.add(code);
+                }
+            };
+            // Both tasks play the same contestant, so the round only closes at the deadline
+            runtime.connect(players[0], eager);
+            runtime.connect(players[0], eager);
+            runtime.start();
+            assertEquals(GuessRejection.ALREADY_SUBMITTED, (byte) rejections.poll(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void closingFailsAwaitGameOver() throws InterruptedException {
+        Contestant[] players = players("Stalled player ", 2);
+        BeautyContest contest = new BeautyContest(players);
+        CountDownLatch guessing = new CountDownLatch(2);
+        SessionRuntime runtime = new SessionRuntime(contest, 1, TimeUnit.MINUTES);
+        for (Contestant player : players) {
+            runtime.connect(player, new Player() {
+                @Override
+                public int guess(int round) throws InterruptedException {
+                    guessing.countDown();
+                    new CountDownLatch(1).await();
+                    return 0;
+                }
+
+                @Override
+                public void onResult(RoundOutcome outcome, int score) {
+                }
+            });
+        }
+        runtime.start();
+        assertTrue(guessing.await(10, TimeUnit.SECONDS));
+
+        BlockingQueue<Throwable> failures = new LinkedBlockingQueue<>();
+        Thread waiter = new Thread(() -> {
+            try {
+                runtime.awaitGameOver();
+            } catch (Throwable e) {
+                failures.add(e);
+            }
+        });
+        waiter.start();
+        runtime.close();
+        assertTrue(failures.poll(10, TimeUnit.SECONDS) instanceof CancellationException);
+        assertThrows(CancellationException.class, runtime::awaitGameOver);
+    }
+
+    @Test
+    void failingToCloseARoundFailsTheSession() throws InterruptedException {
+        Contestant[] players = players("Unlucky player ", 2);
+        BeautyContest contest = new BeautyContest(players);
+        contest.setListener(new ContestListener() {
+            @Override
+            public void onGuess(BeautyContest contest, int id, int guess) {
+            }
+
+            @Override
+            public void onRoundEvaluated(BeautyContest contest, int round) {
+                throw new IllegalArgumentException("Broken listener");
+            }
+
+            @Override
+            public void onTargetModeChanged(BeautyContest contest) {
+            }
+
+            @Override
+            public void onReset(BeautyContest contest) {
+            }
+        });
+        AtomicInteger results = new AtomicInteger();
+        try (SessionRuntime runtime = new SessionRuntime(contest, 20, TimeUnit.MILLISECONDS)) {
+            for (Contestant player : players) {
+                runtime.connect(player, new Player() {
+                    // Never guesses, so the deadline closes the round
+                    @Override
+                    public int guess(int round) {
+                        return -1;
+                    }
+
+                    @Override
+                    public void onResult(RoundOutcome outcome, int score) {
+                        results.incrementAndGet();
+                    }
+                });
+            }
+            runtime.start();
+            IllegalStateException failed = assertThrows(IllegalStateException.class, runtime::awaitGameOver);
+            assertEquals("Broken listener", failed.getCause().getMessage());
+            assertEquals(0, results.get());
+        }
+    }
+}
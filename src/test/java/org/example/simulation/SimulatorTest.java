@@ -0,0 +1,60 @@
+package org.example.simulation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulatorTest {
+
+    @Test
+    void resultsDoNotDependOnParallelism() {
+        Simulator simulator = new Simulator(Arrays.asList(
+                Strategies.uniformRandom(), Strategies.levelK(2), Strategies.fixedRatio(0.8), Strategies.uniformRandom()));
+
+        SimulationResult serial = simulator.run(5000, 1234, new ForkJoinPool(1));
+        SimulationResult parallel = simulator.run(5000, 1234, new ForkJoinPool(4));
+
+        assertEquals(serial, parallel);
+        assertEquals(5000, serial.getGames());
+        assertNotEquals(serial, simulator.run(5000, 4321, new ForkJoinPool(4)));
+    }
+
+    @Test
+    void everyGameHasAWinnerOrIsADraw() {
+        Simulator simulator = new Simulator(Arrays.asList(
+                Strategies.uniformRandom(), Strategies.uniformRandom(), Strategies.uniformRandom()));
+        SimulationResult result = simulator.run(2000, 7);
+
+        assertEquals(result.getGames(), result.getWins(0) + result.getWins(1) + result.getWins(2) + result.getDraws());
+        for (int strategy = 0; strategy < 3; strategy++) {
+            long games = 0;
+            for (int score = SimulationResult.MIN_SCORE; score <= 10; score++) {
+                games += result.getFinalScoreCount(strategy, score);
+            }
+            assertEquals(result.getGames(), games);
+        }
+        assertTrue(result.getMeanRounds() >= 10);
+    }
+
+    @Test
+    void identicalGuessesEliminateEachOther() {
+        Simulator simulator = new Simulator(Arrays.asList(Strategies.constant(30), Strategies.constant(30)));
+        SimulationResult result = simulator.run(10, 1);
+
+        assertEquals(10, result.getDraws());
+        assertEquals(10, result.getFinalScoreCount(0, 0));
+        assertEquals(10.0, result.getMeanRounds());
+    }
+
+    @Test
+    void zeroLosesToHundredHeadToHead() {
+        Simulator simulator = new Simulator(Arrays.asList(Strategies.constant(0), Strategies.constant(100)));
+        SimulationResult result = simulator.run(100, 1);
+
+        assertEquals(1.0, result.getWinRate(1));
+        assertEquals(100, result.getFinalScoreCount(1, 10));
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.tournament;
+
+import org.example.BeautyContest;
+import org.example.Contestant;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TournamentTest {
+    private static final int CONTESTS = 2000;
+    private static final int PLAYERS = 5;
+
+    private static List<BeautyContest> contests() {
+        List<BeautyContest> contests = new ArrayList<>();
+        for (int i = 0; i < CONTESTS; i++) {
+            Contestant[] players = new Contestant[PLAYERS];
+            for (int p = 0; p < PLAYERS; p++) {
+                players[p] = new Contestant("Player " + p);
+            }
+            contests.add(new BeautyContest(players));
+        }
+        return contests;
+    }
+
+    // Guesses only depend on the contest, the round and the player
+    private static final RoundDriver DRIVER = (index, contest) -> {
+        for (int p = 0; p < PLAYERS; p++) {
+            Contestant player = new Contestant("Player " + p);
+            if (contest.getContestantScore(player) > 0) {
+                contest.submitGuess(player, (index * 31 + contest.getRound() * 17 + p * 43) % 101);
+            }
+        }
+    };
+
+    @Test
+    void parallelRunMatchesSerialRun() {
+        Tournament serial = new Tournament(contests(), new ForkJoinPool(1), CONTESTS);
+        Tournament parallel = new Tournament(contests(), new ForkJoinPool(4), 7);
+
+        TournamentStats serialStats = serial.playRounds(30, DRIVER);
+        TournamentStats parallelStats = parallel.playRounds(30, DRIVER);
+
+        assertEquals(serialStats.getRounds(), parallelStats.getRounds());
+        for (int i = 0; i < CONTESTS; i++) {
+            BeautyContest expected = serial.getContest(i);
+            BeautyContest actual = parallel.getContest(i);
+            assertEquals(expected.getRound(), actual.getRound());
+            for (int p = 0; p < PLAYERS; p++) {
+                Contestant player = new Contestant("Player " + p);
+                assertEquals(expected.getContestantScore(player), actual.getContestantScore(player));
+            }
+        }
+    }
+
+    @Test
+    void reportsThroughput() {
+        Tournament tournament = new Tournament(contests());
+        TournamentStats first = tournament.playRounds(2, DRIVER);
+        TournamentStats second = tournament.playRounds(1, DRIVER);
+
+        assertEquals(CONTESTS, first.getContests());
+        assertEquals(2L * CONTESTS, first.getRounds());
+        assertTrue(first.roundsPerSecond() > 0);
+        assertEquals(first.getRounds() + second.getRounds(), tournament.getTotals().getRounds());
+        assertEquals(2L * CONTESTS, tournament.getTotals().getContests());
+    }
+}
@@ -0,0 +1,72 @@
+package org.example;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// LoserKernel on the JDK Vector API. Each step loads the guesses, round stamps and scores
+// of one vector of contestants, looks their guess up in the 101-bit set of losing values
+// with per-lane shifts instead of a gather, subtracts the penalty under the loser mask and
+// ORs the mask into the loser bitset, clearing the lanes left without points from the alive
+// bitset the same way.
+final class VectorLoserKernel implements LoserKernel {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    private VectorLoserKernel() {
+    }
+
+    // Called reflectively by EvaluationKernel; null if vectors are too narrow to pay off
+    static LoserKernel create() {
+        return SPECIES.length() >= 4 ? new VectorLoserKernel() : null;
+    }
+
+    @Override
+    public int markLosers(int[] guesses, int[] guessRounds, int round, int[] losingValues, int penalty,
+                          int[] scores, long[] loserBits, long[] aliveBits, int count) {
+        int eliminated = 0;
+        final IntVector word0 = IntVector.broadcast(SPECIES, losingValues[0]);
+        final IntVector word1 = IntVector.broadcast(SPECIES, losingValues[1]);
+        final IntVector word2 = IntVector.broadcast(SPECIES, losingValues[2]);
+        final IntVector word3 = IntVector.broadcast(SPECIES, losingValues[3]);
+        // Lane counts are powers of two up to 16, so a vector never straddles two bitset words
+        final int lanes = SPECIES.length();
+        final int bound = SPECIES.loopBound(count);
+        int id = 0;
+        for (; id < bound; id += lanes) {
+            final IntVector guess = IntVector.fromArray(SPECIES, guesses, id);
+            final IntVector word = guess.lanewise(VectorOperators.LSHR, 5);
+            final IntVector bits = word0
+                    .blend(word1, word.compare(VectorOperators.EQ, 1))
+                    .blend(word2, word.compare(VectorOperators.EQ, 2))
+                    .blend(word3, word.compare(VectorOperators.EQ, 3));
+            final VectorMask<Integer> losing = bits
+                    .lanewise(VectorOperators.LSHR, guess.lanewise(VectorOperators.AND, 31))
+                    .lanewise(VectorOperators.AND, 1)
+                    .compare(VectorOperators.NE, 0)
+                    .and(IntVector.fromArray(SPECIES, guessRounds, id).compare(VectorOperators.EQ, round));
+            if (losing.anyTrue()) {
+                final IntVector score = IntVector.fromArray(SPECIES, scores, id).sub(penalty, losing);
+                score.intoArray(scores, id);
+                loserBits[id >>> 6] |= losing.toLong() << (id & 63);
+                final VectorMask<Integer> out = score.compare(VectorOperators.LE, 0).and(losing);
+                if (out.anyTrue()) {
+                    aliveBits[id >>> 6] &= ~(out.toLong() << (id & 63));
+                    eliminated += out.trueCount();
+                }
+            }
+        }
+        for (; id < count; id++) {
+            final int guess = guesses[id];
+            if (guessRounds[id] == round && (losingValues[guess >>> 5] >>> (guess & 31) & 1) != 0) {
+                scores[id] -= penalty;
+                loserBits[id >>> 6] |= 1L << id;
+                if (scores[id] <= 0) {
+                    aliveBits[id >>> 6] &= ~(1L << id);
+                    eliminated++;
+                }
+            }
+        }
+        return eliminated;
+    }
+}